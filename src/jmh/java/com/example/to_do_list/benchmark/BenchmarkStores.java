@@ -0,0 +1,108 @@
+package com.example.to_do_list.benchmark;
+
+import com.example.to_do_list.ToDoListApplication;
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.InMemoryTaskStore;
+import com.example.to_do_list.store.JsonTaskStore;
+import com.example.to_do_list.store.LogTaskStore;
+import com.example.to_do_list.store.TaskFileFormat;
+import com.example.to_do_list.store.TaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Opens, fills and disposes of the stores the benchmarks run against. Every store gets its own
+ * temporary directory, so runs never touch the application's data files.
+ */
+final class BenchmarkStores {
+
+    static final String[] STATUSES = {"todo", "in_progress", "done"};
+
+    // the jpa store needs a running context (datasource, transactions); closed with the store
+    private static final Map<TaskStore, ConfigurableApplicationContext> contexts = new IdentityHashMap<>();
+
+    private BenchmarkStores() {
+    }
+
+    static TaskStore open(String engine, Path dir) {
+        return switch (engine) {
+            // fsync off: we measure the store, not the disk
+            case "json" -> json(dir.resolve("tasks.json"), TaskFileFormat.JSON);
+            case "smile" -> json(dir.resolve("tasks.smile"), TaskFileFormat.SMILE);
+            case "log" -> new LogTaskStore(dir.resolve("tasks.log").toString(),
+                    dir.resolve("tasks.snapshot.json").toString(), false, 10_000);
+            case "memory" -> new InMemoryTaskStore(dir.resolve("tasks.json").toString(),
+                    InMemoryTaskStore.Durability.ASYNC, 1000);
+            case "jpa" -> openJpa(dir);
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+    }
+
+    private static TaskStore json(Path file, TaskFileFormat format) {
+        return new JsonTaskStore(file.toString(), format, JsonTaskStore.FsyncPolicy.NEVER, Duration.ofSeconds(1),
+                Duration.ofMillis(1), 256, new SimpleMeterRegistry());
+    }
+
+    // H2 in file mode, so it is compared with the file stores on equal terms
+    private static synchronized TaskStore openJpa(Path dir) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ToDoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("todo.store.engine=jpa",
+                        "spring.datasource.url=jdbc:h2:file:" + dir.resolve("tasks").toAbsolutePath(),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN")
+                .run();
+        TaskStore store = context.getBean(TaskStore.class);
+        contexts.put(store, context);
+        return store;
+    }
+
+    /**
+     * Fills an empty store with ids 1..size, in one batch so that setup stays cheap for file stores.
+     */
+    static void populate(TaskStore store, int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            tasks.add(task(i));
+        }
+        store.applyBatch(tasks, List.of());
+    }
+
+    static Task task(long i) {
+        return new Task(null, "Task " + i, "Description of task " + i, STATUSES[(int) (i % STATUSES.length)]);
+    }
+
+    static void close(TaskStore store, Path dir) throws IOException {
+        ConfigurableApplicationContext context;
+        synchronized (BenchmarkStores.class) {
+            context = contexts.remove(store);
+        }
+        if (context != null) {
+            context.close();
+        } else if (store instanceof JsonTaskStore json) {
+            json.close();
+        } else if (store instanceof LogTaskStore log) {
+            log.close();
+        } else if (store instanceof InMemoryTaskStore memory) {
+            memory.close();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.to_do_list.benchmark;
+
+import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link Task}, alone and as the whole list the file stores read
+ * and write on every operation, in JSON and in the Smile encoding the JSON store can use instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<>() {};
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private Task task;
+    private byte[] taskJson;
+    private List<Task> tasks;
+    private byte[] tasksJson;
+    private byte[] tasksSmile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        task = BenchmarkStores.task(1);
+        task.setId(1L);
+        taskJson = mapper.writeValueAsBytes(task);
+        tasks = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            Task t = BenchmarkStores.task(i);
+            t.setId(i);
+            tasks.add(t);
+        }
+        tasksJson = mapper.writeValueAsBytes(tasks);
+        tasksSmile = smileMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws IOException {
+        return mapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public Task deserializeTask() throws IOException {
+        return mapper.readValue(taskJson, Task.class);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return mapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<Task> deserializeList() throws IOException {
+        return mapper.readValue(tasksJson, TASK_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializeListSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<Task> deserializeListSmile() throws IOException {
+        return smileMapper.readValue(tasksSmile, TASK_LIST);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.to_do_list.benchmark;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.TaskCache;
+import com.example.to_do_list.service.TaskListCache;
+import com.example.to_do_list.service.TaskService;
+import com.example.to_do_list.service.TaskVersions;
+import com.example.to_do_list.store.TaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} with its caches in front of a store. With {@code cache=hit} reads go to a
+ * warmed hot set (and loaded list views); with {@code cache=miss} the entry or view is dropped
+ * first, so every read goes through to the store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int HOT_SET = 1000;
+
+    @Param({"json", "memory", "jpa"})
+    public String engine;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"hit", "miss"})
+    public String cache;
+
+    private Path dir;
+    private TaskStore store;
+    private TaskCache taskCache;
+    private TaskListCache listCache;
+    private TaskService service;
+    private boolean miss;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("task-service-bench");
+        store = BenchmarkStores.open(engine, dir);
+        BenchmarkStores.populate(store, size);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        taskCache = new TaskCache(store, 10_000, Duration.ofMinutes(10), Duration.ofSeconds(30),
+                Duration.ofMinutes(1), registry);
+        listCache = new TaskListCache(store, registry);
+        service = new TaskService(store, listCache, taskCache, new TaskVersions());
+        miss = "miss".equals(cache);
+        if (!miss) {
+            for (long id = 1; id <= Math.min(size, HOT_SET); id++) {
+                service.getTaskById(id);
+            }
+            service.getAllTasks();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        taskCache.close();
+        BenchmarkStores.close(store, dir);
+    }
+
+    @Benchmark
+    public Optional<Task> getTaskById() {
+        if (miss) {
+            long id = ThreadLocalRandom.current().nextLong(1, size + 1);
+            taskCache.invalidate(id);
+            return service.getTaskById(id);
+        }
+        return service.getTaskById(ThreadLocalRandom.current().nextLong(1, Math.min(size, HOT_SET) + 1));
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        if (miss) {
+            listCache.invalidate();
+        }
+        return service.getAllTasks();
+    }
+
+    @Benchmark
+    public List<Task> getTasksByStatus() {
+        if (miss) {
+            listCache.invalidate();
+        }
+        return service.getTasksByStatus(BenchmarkStores.STATUSES[ThreadLocalRandom.current().nextInt(BenchmarkStores.STATUSES.length)]);
+    }
+
+    @Benchmark
+    public Optional<Task> updateTask() {
+        long id = ThreadLocalRandom.current().nextLong(1, size + 1);
+        return service.updateTask(id, BenchmarkStores.task(id));
+    }
+}
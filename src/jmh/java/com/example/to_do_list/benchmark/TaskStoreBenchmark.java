@@ -0,0 +1,136 @@
+package com.example.to_do_list.benchmark;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.TaskStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link TaskStore} operation on a store holding {@code size} tasks. Writes keep the dataset
+ * size constant: updates rewrite an existing id and creates are paired with a delete.
+ * <p>
+ * {@code deleteAll} is left out: it empties the store, so each invocation would have to rebuild
+ * the whole dataset and the rebuild would be all that gets measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskStoreBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"json", "smile", "log", "memory", "jpa"})
+    public String engine;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path dir;
+    private TaskStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("task-store-bench");
+        store = BenchmarkStores.open(engine, dir);
+        BenchmarkStores.populate(store, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkStores.close(store, dir);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return store.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean existsById() {
+        return store.existsById(randomId());
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return store.findAll();
+    }
+
+    @Benchmark
+    public List<Task> findByStatus() {
+        return store.findByStatus(BenchmarkStores.STATUSES[ThreadLocalRandom.current().nextInt(BenchmarkStores.STATUSES.length)]);
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return store.findPage(ThreadLocalRandom.current().nextLong(0, Math.max(1, size - PAGE_SIZE)), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> findAllById() {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(randomId());
+        }
+        return store.findAllById(ids);
+    }
+
+    @Benchmark
+    public long count() {
+        return store.count();
+    }
+
+    @Benchmark
+    public Task update() {
+        long id = randomId();
+        Task task = BenchmarkStores.task(id);
+        task.setId(id);
+        return store.save(task);
+    }
+
+    @Benchmark
+    public Task createAndDelete() {
+        Task created = store.save(BenchmarkStores.task(size + 1L));
+        store.deleteById(created.getId());
+        return created;
+    }
+
+    @Benchmark
+    public List<Task> applyBatch() {
+        List<Task> tasks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long id = randomId();
+            Task task = BenchmarkStores.task(id);
+            task.setId(id);
+            tasks.add(task);
+        }
+        return store.applyBatch(tasks, List.of());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.to_do_list.benchmark;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.TaskStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point reads and updates mixed at {@code readRatio}. Run it with several thread counts
+ * ({@code -t}) to see how each store holds up under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskStoreMixedBenchmark {
+
+    @Param({"json", "log", "memory", "jpa"})
+    public String engine;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "0.9", "0.99"})
+    public double readRatio;
+
+    private Path dir;
+    private TaskStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("task-store-bench");
+        store = BenchmarkStores.open(engine, dir);
+        BenchmarkStores.populate(store, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkStores.close(store, dir);
+    }
+
+    @Benchmark
+    public Object readWrite() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, size + 1);
+        if (random.nextDouble() < readRatio) {
+            return store.findById(id);
+        }
+        Task task = BenchmarkStores.task(id);
+        task.setId(id);
+        return store.save(task);
+    }
+}
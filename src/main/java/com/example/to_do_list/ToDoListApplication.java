@@ -2,10 +2,8 @@ package com.example.to_do_list;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
-@EnableCaching
 public class ToDoListApplication {
     public static void main(String[] args) {
         SpringApplication.run(ToDoListApplication.class, args);
@@ -1,22 +1,24 @@
 package com.example.to_do_list.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import com.example.to_do_list.service.TaskCache;
+import com.example.to_do_list.store.TaskStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class CacheConfig {
 
+    // Per-id task cache; the task list views live in TaskListCache.
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager();
-        manager.setCaffeine(
-                Caffeine.newBuilder()
-                        .maximumSize(500)
-                        .expireAfterWrite(java.time.Duration.ofMinutes(10))
-        );
-        return manager;
+    public TaskCache taskCache(TaskStore store, MeterRegistry registry,
+                               @Value("${todo.cache.task.maximum-size:10000}") long maximumSize,
+                               @Value("${todo.cache.task.expire-after-write:10m}") Duration expireAfterWrite,
+                               @Value("${todo.cache.task.negative-ttl:30s}") Duration negativeTtl,
+                               @Value("${todo.cache.task.refresh-after-write:1m}") Duration refreshAfterWrite) {
+        return new TaskCache(store, maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, registry);
     }
 }
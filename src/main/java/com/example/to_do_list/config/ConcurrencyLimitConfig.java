@@ -0,0 +1,54 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.controller.ConcurrencyLimitInterceptor;
+import com.example.to_do_list.limit.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "todo.limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimit taskReadLimit(@Value("${todo.limit.read.initial:100}") int initial,
+                                                  @Value("${todo.limit.read.min:10}") int min,
+                                                  @Value("${todo.limit.read.max:1000}") int max,
+                                                  @Value("${todo.limit.tolerance:1.5}") double tolerance,
+                                                  @Value("${todo.limit.window:10}") int window,
+                                                  MeterRegistry registry) {
+        return new AdaptiveConcurrencyLimit("read", initial, min, max, tolerance, window, registry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit taskWriteLimit(@Value("${todo.limit.write.initial:20}") int initial,
+                                                   @Value("${todo.limit.write.min:2}") int min,
+                                                   @Value("${todo.limit.write.max:200}") int max,
+                                                   @Value("${todo.limit.tolerance:1.5}") double tolerance,
+                                                   @Value("${todo.limit.window:10}") int window,
+                                                   MeterRegistry registry) {
+        return new AdaptiveConcurrencyLimit("write", initial, min, max, tolerance, window, registry);
+    }
+
+    // after TaskRequestRecorder (order 0), so shed requests still show up as todo.TaskRequest events
+    @Bean
+    public WebMvcConfigurer taskConcurrencyLimit(AdaptiveConcurrencyLimit taskReadLimit,
+                                                 AdaptiveConcurrencyLimit taskWriteLimit,
+                                                 @Value("${todo.limit.retry-after:1s}") Duration retryAfter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ConcurrencyLimitInterceptor(taskReadLimit, taskWriteLimit, retryAfter))
+                        .addPathPatterns("/api/tasks", "/api/tasks/**",
+                                "/api/reactive/tasks", "/api/reactive/tasks/**")
+                        .order(1);
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.controller.TaskRequestRecorder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class FlightRecorderConfig {
+
+    // one todo.TaskRequest event per task API request; see FlightRecorderEndpoint for recording them
+    @Bean
+    public WebMvcConfigurer taskRequestEvents() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new TaskRequestRecorder())
+                        .addPathPatterns("/api/tasks", "/api/tasks/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.to_do_list.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controls a rolling Flight Recorder recording: the JDK's low-overhead {@code default} settings plus
+ * the application's own events (see the {@code com.example.to_do_list.jfr} package), kept on disk
+ * for at most {@code max-age} / {@code max-size}.
+ * <p>
+ * {@code GET /actuator/flightrecorder} reports its state; {@code POST /actuator/flightrecorder/start},
+ * {@code .../stop} and {@code .../dump} start a new one, stop it and write what it holds to a
+ * {@code .jfr} file in {@code dump-dir}. A stopped recording can still be dumped until the next
+ * start. With {@code todo.jfr.continuous=true} it is started with the application.
+ * <p>
+ * The operations are unauthenticated, so the endpoint is left out of the default web exposure.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    public record Status(boolean running, Instant startTime, long bytes, Duration maxAge, long maxBytes,
+                         String dumpedTo) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+    private static final String RECORDING_NAME = "todo-continuous";
+    private static final DateTimeFormatter DUMP_NAME = DateTimeFormatter.ofPattern("'todo-'yyyyMMdd-HHmmss'.jfr'");
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path dumpDir;
+    // a lock rather than synchronized: a dump writes the whole recording to disk
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${todo.jfr.continuous:false}") boolean continuous,
+                                  @Value("${todo.jfr.max-age:30m}") Duration maxAge,
+                                  @Value("${todo.jfr.max-size:250MB}") DataSize maxSize,
+                                  @Value("${todo.jfr.dump-dir:.}") String dumpDir) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDir = Path.of(dumpDir);
+        if (continuous) {
+            if (FlightRecorder.isAvailable()) {
+                start();
+            } else {
+                logger.warn("Flight Recorder is not available in this JVM; no continuous recording");
+            }
+        }
+    }
+
+    @ReadOperation
+    public Status status() {
+        lock.lock();
+        try {
+            return status(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @WriteOperation
+    public Status control(@Selector String action) {
+        lock.lock();
+        try {
+            return switch (action) {
+                case "start" -> start();
+                case "stop" -> stop();
+                case "dump" -> dump();
+                default -> throw new IllegalArgumentException("Unknown action: " + action + " (start, stop or dump)");
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // callers hold the lock (or are the constructor)
+    private Status start() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available in this JVM");
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load the default Flight Recorder settings", e);
+        }
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.start();
+        logger.info("Started Flight Recorder recording {} (max age {}, max size {})", RECORDING_NAME, maxAge, maxSize);
+        return status(null);
+    }
+
+    private Status stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No recording is running");
+        }
+        recording.stop();
+        logger.info("Stopped Flight Recorder recording {}", RECORDING_NAME);
+        return status(null);
+    }
+
+    private Status dump() {
+        if (recording == null) {
+            throw new IllegalStateException("Nothing has been recorded");
+        }
+        Path file = dumpDir.resolve(LocalDateTime.now().format(DUMP_NAME)).toAbsolutePath();
+        try {
+            Files.createDirectories(dumpDir);
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to dump the recording to " + file, e);
+        }
+        logger.info("Dumped Flight Recorder recording {} to {}", RECORDING_NAME, file);
+        return status(file.toString());
+    }
+
+    private Status status(String dumpedTo) {
+        if (recording == null) {
+            return new Status(false, null, 0, maxAge, maxSize.toBytes(), dumpedTo);
+        }
+        return new Status(recording.getState() == RecordingState.RUNNING, recording.getStartTime(),
+                recording.getSize(), maxAge, maxSize.toBytes(), dumpedTo);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
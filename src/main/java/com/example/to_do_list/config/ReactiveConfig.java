@@ -0,0 +1,28 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.store.BlockingReactiveTaskStore;
+import com.example.to_do_list.store.ReactiveTaskStore;
+import com.example.to_do_list.store.TaskStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    // Blocking store and service calls of the reactive API run here. Both the thread count and the
+    // queue of waiting calls are bounded; calls beyond the queue are rejected rather than piling up.
+    @Bean(destroyMethod = "dispose")
+    public Scheduler taskStoreScheduler(@Value("${todo.reactive.scheduler.threads:16}") int threads,
+                                        @Value("${todo.reactive.scheduler.queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "task-store-io");
+    }
+
+    @Bean
+    public ReactiveTaskStore reactiveTaskStore(TaskStore store, Scheduler taskStoreScheduler,
+                                               @Value("${todo.reactive.page-size:500}") int pageSize) {
+        return new BlockingReactiveTaskStore(store, taskStoreScheduler, pageSize);
+    }
+}
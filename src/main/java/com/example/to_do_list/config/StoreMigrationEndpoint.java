@@ -0,0 +1,287 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.service.TaskVersions;
+import com.example.to_do_list.store.InMemoryTaskStore;
+import com.example.to_do_list.store.JpaTaskStore;
+import com.example.to_do_list.store.JsonTaskStore;
+import com.example.to_do_list.store.LogTaskStore;
+import com.example.to_do_list.store.TaskFileFormat;
+import com.example.to_do_list.store.TaskStore;
+import com.example.to_do_list.store.TaskStoreMigrator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code POST /actuator/storemigration} with {@code {"engine": "jpa"}} (or json, log, memory plus a
+ * {@code path}) copies every task from the active store into a new store of that engine while the
+ * application keeps serving requests. Once the report says {@code verified}, point
+ * {@code todo.store.engine} (and its path) at the target and restart.
+ * <p>
+ * Cutover: from the start of the copy every change the application makes is also applied to the
+ * target by a {@link TaskStoreMirror}, and after a verified report that goes on until shutdown,
+ * which drains the mirror before closing the target. {@code GET /actuator/storemigration} shows
+ * the mirror's progress; restart once it has nothing pending and no failures. An unverified
+ * migration stops mirroring and closes the target.
+ * <p>
+ * The target must be new: files that exist must hold an empty store of the target engine, they
+ * must not be (or share a temp file with) the active store's files, and a {@code jpa} target needs
+ * a datasource that outlives the restart. The operation is unauthenticated and writes where it is
+ * told, so the endpoint is not in the default web exposure; use JMX or expose it behind
+ * authentication for the migration.
+ */
+@Component
+@Endpoint(id = "storemigration")
+public class StoreMigrationEndpoint {
+
+    public record Status(String engine, String path, long mirrored, int pending, long failures,
+                         String lastError) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreMigrationEndpoint.class);
+    // how long shutdown waits for the mirror to apply what is still pending
+    private static final long DRAIN_TIMEOUT_MS = 30_000;
+
+    private final TaskStore source;
+    private final TaskVersions versions;
+    private final AutowireCapableBeanFactory beanFactory;
+    private final String activeEngine;
+    private final List<Path> activeFiles;
+    private final String datasourceUrl;
+    private final TaskStoreMigrator migrator;
+    // a lock rather than synchronized: a migration blocks on I/O for a long time
+    private final ReentrantLock running = new ReentrantLock();
+    // the verified target and its mirror, kept until shutdown; guarded by running
+    private volatile Cutover cutover;
+
+    private record Cutover(String engine, String path, TaskStore target, TaskStoreMirror mirror) {
+    }
+
+    public StoreMigrationEndpoint(TaskStore source, TaskVersions versions, AutowireCapableBeanFactory beanFactory,
+                                  @Value("${todo.store.engine:json}") String activeEngine,
+                                  @Value("${todo.store.json.path:tasks.json}") String jsonPath,
+                                  @Value("${todo.store.log.path:tasks.log}") String logPath,
+                                  @Value("${todo.store.log.snapshot-path:tasks.snapshot.json}") String logSnapshotPath,
+                                  @Value("${todo.store.memory.path:tasks.json}") String memoryPath,
+                                  @Value("${spring.datasource.url:}") String datasourceUrl,
+                                  @Value("${todo.migration.chunk-size:1000}") int chunkSize,
+                                  @Value("${todo.migration.max-sync-passes:5}") int maxSyncPasses) {
+        this.source = source;
+        this.versions = versions;
+        this.beanFactory = beanFactory;
+        this.activeEngine = activeEngine;
+        this.activeFiles = switch (activeEngine) {
+            case "json" -> List.of(Path.of(jsonPath), tempFile(Path.of(jsonPath)));
+            case "log" -> List.of(Path.of(logPath), Path.of(logSnapshotPath), tempFile(Path.of(logSnapshotPath)));
+            case "memory" -> List.of(Path.of(memoryPath), tempFile(Path.of(memoryPath)));
+            default -> List.of();
+        };
+        this.datasourceUrl = datasourceUrl;
+        this.migrator = new TaskStoreMigrator(chunkSize, maxSyncPasses);
+    }
+
+    @WriteOperation
+    public TaskStoreMigrator.Report migrate(String engine, @Nullable String path) {
+        if (engine.equals(activeEngine)) {
+            throw new IllegalArgumentException("Engine " + engine + " is already the active store");
+        }
+        if (!running.tryLock()) {
+            throw new IllegalStateException("A migration is already running");
+        }
+        try {
+            if (cutover != null) {
+                throw new IllegalStateException("Changes are already mirrored to the " + cutover.engine()
+                        + " store; restart on it first");
+            }
+            return run(engine, path);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    @ReadOperation
+    public Status status() {
+        Cutover current = cutover;
+        if (current == null) {
+            return null;
+        }
+        TaskStoreMirror.Status mirror = current.mirror().status();
+        return new Status(current.engine(), current.path(), mirror.mirrored(), mirror.pending(),
+                mirror.failures(), mirror.lastError());
+    }
+
+    private TaskStoreMigrator.Report run(String engine, @Nullable String path) {
+        logger.info("Migrating tasks from the {} store to a {} store at {}", activeEngine, engine, path);
+        TaskStore target = open(engine, path);
+        // before the copy, so no change falls between it and the mirror; the sync passes repair
+        // whatever the copy overwrites with older data, and a verified pass writes nothing
+        TaskStoreMirror mirror = new TaskStoreMirror(target);
+        versions.addListener(mirror);
+        boolean verified = false;
+        try {
+            TaskStoreMigrator.Report report = migrator.migrate(source, target);
+            logger.info("Migration to {} finished: {}", engine, report);
+            verified = report.verified();
+            if (verified) {
+                cutover = new Cutover(engine, path, target, mirror);
+                logger.info("Mirroring changes to the {} store until shutdown", engine);
+            }
+            return report;
+        } finally {
+            if (!verified) {
+                stop(mirror, target);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Cutover current = cutover;
+        if (current != null) {
+            cutover = null;
+            stop(current.mirror(), current.target());
+        }
+    }
+
+    private void stop(TaskStoreMirror mirror, TaskStore target) {
+        versions.removeListener(mirror);
+        try {
+            if (!mirror.drain(DRAIN_TIMEOUT_MS)) {
+                logger.error("The migration target is missing changes: {}", mirror.status());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(target);
+        }
+    }
+
+    private TaskStore open(String engine, @Nullable String path) {
+        if (engine.equals("jpa")) {
+            if (isInMemory(datasourceUrl)) {
+                throw new IllegalArgumentException("The datasource " + datasourceUrl
+                        + " is in memory: the migrated tasks would be gone after the restart");
+            }
+            JpaTaskStore target = beanFactory.createBean(JpaTaskStore.class);
+            if (target.count() > 0) {
+                throw new IllegalArgumentException("The tasks table of " + datasourceUrl + " is not empty");
+            }
+            return target;
+        }
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("A path is required for the " + engine + " engine");
+        }
+        checkTargetFiles(engine, Path.of(path));
+        return switch (engine) {
+            case "json" -> new JsonTaskStore(path);
+            case "log" -> new LogTaskStore(path, path + ".snapshot.json", true, 10_000);
+            case "memory" -> new InMemoryTaskStore(path, InMemoryTaskStore.Durability.ASYNC, 1000);
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+    }
+
+    // opening a store recovers its files (truncating a log, replacing a temp file), so everything is
+    // checked before the target is opened
+    private void checkTargetFiles(String engine, Path path) {
+        Path snapshot = Path.of(path + ".snapshot.json");
+        List<Path> written = engine.equals("log")
+                ? List.of(path, snapshot, tempFile(snapshot))
+                : List.of(path, tempFile(path));
+        for (Path file : written) {
+            for (Path active : activeFiles) {
+                if (sameFile(file, active)) {
+                    throw new IllegalArgumentException(file + " is used by the active " + activeEngine + " store");
+                }
+            }
+        }
+        if (engine.equals("log")) {
+            // a log without records, or none at all
+            requireEmpty(engine, path, file -> Files.size(file) == 0);
+            requireEmpty(engine, snapshot, StoreMigrationEndpoint::isEmptyTaskList);
+        } else if (engine.equals("json") || engine.equals("memory")) {
+            requireEmpty(engine, path, StoreMigrationEndpoint::isEmptyTaskList);
+        }
+    }
+
+    private static void requireEmpty(String engine, Path file, FileCheck empty) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean isEmpty;
+        try {
+            isEmpty = empty.test(file);
+        } catch (IOException e) {
+            // unreadable or not a task file at all
+            isEmpty = false;
+        }
+        if (!isEmpty) {
+            throw new IllegalArgumentException(file + " exists and is not an empty " + engine + " store");
+        }
+    }
+
+    private static boolean isEmptyTaskList(Path file) throws IOException {
+        ObjectMapper mapper = TaskFileFormat.detect(file) == TaskFileFormat.SMILE
+                ? new ObjectMapper(new SmileFactory())
+                : new ObjectMapper();
+        JsonNode tasks = mapper.readTree(file.toFile());
+        return tasks != null && tasks.isArray() && tasks.isEmpty();
+    }
+
+    private static boolean sameFile(Path a, Path b) {
+        if (a.toAbsolutePath().normalize().equals(b.toAbsolutePath().normalize())) {
+            return true;
+        }
+        try {
+            return Files.exists(a) && Files.exists(b) && Files.isSameFile(a, b);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // the temp file the file stores write before renaming it over the real one
+    private static Path tempFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    // no url means Spring Boot starts an embedded in-memory database
+    private static boolean isInMemory(String url) {
+        return url.isBlank()
+                || url.startsWith("jdbc:h2:mem:")
+                || url.startsWith("jdbc:hsqldb:mem:")
+                || url.startsWith("jdbc:derby:memory:");
+    }
+
+    private interface FileCheck {
+        boolean test(Path file) throws IOException;
+    }
+
+    private static void close(TaskStore store) {
+        try {
+            if (store instanceof JsonTaskStore json) {
+                json.close();
+            } else if (store instanceof LogTaskStore log) {
+                log.close();
+            } else if (store instanceof InMemoryTaskStore memory) {
+                memory.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close migration target", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.TaskVersions;
+import com.example.to_do_list.store.TaskStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies every change published by {@link TaskVersions} to a migration target, so that the target
+ * keeps up with the active store until the restart that switches over to it.
+ * <p>
+ * Listeners must not block, so changes are only recorded (the latest per id) and applied by a
+ * thread of their own, a batch at a time and in order. A batch that fails is kept, unless a newer
+ * change of the same id has arrived meanwhile, and retried a second later.
+ */
+class TaskStoreMirror implements TaskVersions.Listener {
+
+    record Status(long mirrored, int pending, long failures, String lastError) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStoreMirror.class);
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final TaskStore target;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // id -> latest task, or null once deleted
+    private Map<Long, Task> pending = new LinkedHashMap<>();
+    private boolean stopping;
+    private long mirrored;
+    private long failures;
+    private String lastError;
+    private final Thread applier;
+
+    TaskStoreMirror(TaskStore target) {
+        this.target = target;
+        this.applier = new Thread(this::applyLoop, "task-store-mirror");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    @Override
+    public void changed(long version, Long id, Task task) {
+        lock.lock();
+        try {
+            pending.put(id, task);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Status status() {
+        lock.lock();
+        try {
+            return new Status(mirrored, pending.size(), failures, lastError);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies what is still pending and stops; gives up (interrupting a retry) after
+     * {@code timeoutMs}. Returns whether the target has every change.
+     */
+    boolean drain(long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            stopping = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        applier.join(timeoutMs);
+        if (applier.isAlive()) {
+            applier.interrupt();
+            applier.join(timeoutMs);
+        }
+        return !applier.isAlive() && status().pending() == 0;
+    }
+
+    private void applyLoop() {
+        while (true) {
+            Map<Long, Task> batch;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !stopping) {
+                    changed.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            if (!apply(batch)) {
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean apply(Map<Long, Task> batch) {
+        List<Task> saves = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        batch.forEach((id, task) -> {
+            if (task == null) {
+                deletes.add(id);
+            } else {
+                saves.add(task);
+            }
+        });
+        try {
+            // each id appears once, so deletes and saves commute
+            if (!deletes.isEmpty()) {
+                target.applyBatch(List.of(), deletes);
+            }
+            if (!saves.isEmpty()) {
+                target.importTasks(saves);
+            }
+            lock.lock();
+            try {
+                mirrored += batch.size();
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to mirror {} changes to the migration target, retrying", batch.size(), e);
+            lock.lock();
+            try {
+                failures++;
+                lastError = String.valueOf(e.getMessage());
+                // newer changes of the same ids win over the failed ones
+                batch.putAll(pending);
+                pending = batch;
+            } finally {
+                lock.unlock();
+            }
+            return false;
+        }
+    }
+}
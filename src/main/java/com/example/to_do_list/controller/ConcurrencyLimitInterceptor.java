@@ -0,0 +1,121 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.exception.ServiceOverloadedException;
+import com.example.to_do_list.limit.AdaptiveConcurrencyLimit;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for the task APIs (blocking and reactive): GET and HEAD requests take a permit of the read budget,
+ * everything else one of the write budget, so a burst of slow writes cannot starve reads (or the
+ * other way round). A request that finds its budget at the limit fails at once with
+ * {@link ServiceOverloadedException} (503 with {@code Retry-After}) instead of queueing.
+ * <p>
+ * The permit is held until the handler returns, or until async processing starts for streamed
+ * responses: a long-lived event stream is not doing work and must not hold a permit, and its
+ * duration would read as latency to the limit. A handler returning a single reactive value
+ * ({@code Mono}) holds it until the response is complete instead, since the store call only starts
+ * after the handler has returned.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimit reads, AdaptiveConcurrencyLimit writes,
+                                       Duration retryAfter) {
+        this.reads = reads;
+        this.writes = writes;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // admitted on the first dispatch
+            return true;
+        }
+        String method = request.getMethod();
+        AdaptiveConcurrencyLimit budget = "GET".equals(method) || "HEAD".equals(method) ? reads : writes;
+        if (!budget.tryAcquire()) {
+            throw new ServiceOverloadedException(
+                    "Too many concurrent " + budget.getName() + " requests, retry later", retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(budget, System.nanoTime(), new AtomicBoolean()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (returnsSingleValue(handler) && request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            // released by afterCompletion of the async dispatch; the listener covers a response that
+            // completes without one (client gone, container shutting down)
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    permit.release();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private static boolean returnsSingleValue(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return false;
+        }
+        ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance()
+                .getAdapter(method.getReturnType().getParameterType());
+        return adapter != null && !adapter.isMultiValue();
+    }
+
+    private static void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release();
+        }
+    }
+
+    private record Permit(AdaptiveConcurrencyLimit budget, long start, AtomicBoolean released) {
+
+        // at most once, whichever of afterCompletion and the async listener comes first
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                budget.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
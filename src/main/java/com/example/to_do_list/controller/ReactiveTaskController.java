@@ -0,0 +1,127 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.ReactiveTaskService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TaskController}. Handlers return {@link Mono}/{@link Flux} and
+ * release the request thread while the store works on its own bounded scheduler. Lists are only
+ * produced as newline-delimited JSON: each task is written as soon as the client has taken the
+ * previous one, so a slow client slows down the store reads instead of buffering the whole list.
+ */
+@RestController
+@RequestMapping("/api/reactive/tasks")
+@Tag(name = "Reactive Task Controller", description = "Non-blocking APIs for managing To-Do tasks")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    public ReactiveTaskController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all tasks", description = "Stream tasks as newline-delimited JSON in id order, read from the store as the client consumes them")
+    @ApiResponse(responseCode = "200", description = "Tasks are being streamed")
+    public Flux<Task> getAllTasks(
+            @Parameter(description = "Cursor: only tasks with an id greater than this one")
+            @RequestParam(required = false) Long after) {
+        return taskService.getAllTasks(after);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get task by ID", description = "Retrieve a specific task by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task found"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    public Mono<ResponseEntity<Task>> getTaskById(
+            @Parameter(description = "ID of the task to be retrieved")
+            @PathVariable Long id) {
+        return taskService.getTaskById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new task", description = "Create a new task with the provided details")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Task created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<ResponseEntity<Task>> createTask(
+            @Parameter(description = "Task object to be created")
+            @Valid @RequestBody Task task) {
+        return taskService.createTask(task)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update a task", description = "Update an existing task completely")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<ResponseEntity<Task>> updateTask(
+            @Parameter(description = "ID of the task to be updated")
+            @PathVariable Long id,
+            @Parameter(description = "Updated task object")
+            @Valid @RequestBody Task task) {
+        return taskService.updateTask(id, task)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a task", description = "Update specific fields of an existing task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    public Mono<ResponseEntity<Task>> patchTask(
+            @Parameter(description = "ID of the task to be updated")
+            @PathVariable Long id,
+            @Parameter(description = "Partial task object with fields to update")
+            @RequestBody Task partialUpdate) {
+        return taskService.patchTask(id, partialUpdate)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a task", description = "Delete a task by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Task deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    public Mono<ResponseEntity<Void>> deleteTask(
+            @Parameter(description = "ID of the task to be deleted")
+            @PathVariable Long id) {
+        return taskService.deleteTask(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream tasks by status", description = "Stream tasks with the given status as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Tasks are being streamed")
+    public Flux<Task> getTasksByStatus(
+            @Parameter(description = "Status to filter tasks (todo, in_progress, done)")
+            @PathVariable String status) {
+        return taskService.getTasksByStatus(status);
+    }
+}
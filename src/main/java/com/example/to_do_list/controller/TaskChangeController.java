@@ -0,0 +1,128 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.dto.TaskChange;
+import com.example.to_do_list.exception.ChangesExpiredException;
+import com.example.to_do_list.service.TaskChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delta sync: clients take a cursor, load the list once, and from then on apply the changes after
+ * their cursor, either by polling or over Server-Sent Events. A cursor the feed no longer covers
+ * is answered with 410 (or a {@code reset} event), after which the client reloads the list.
+ */
+@RestController
+@RequestMapping("/api/tasks/changes")
+@Tag(name = "Task Change Feed", description = "Changes to tasks since a cursor, polled or pushed")
+public class TaskChangeController {
+
+    private final TaskChangeFeed feed;
+    private final Duration heartbeat;
+    // one virtual thread per open event stream; it sleeps on the feed between changes
+    private final ExecutorService streams = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-changes-", 0).factory());
+
+    public TaskChangeController(TaskChangeFeed feed, @Value("${todo.changes.heartbeat:15s}") Duration heartbeat) {
+        this.feed = feed;
+        this.heartbeat = heartbeat;
+    }
+
+    @PreDestroy
+    public void close() {
+        streams.shutdownNow();
+    }
+
+    @GetMapping
+    @Operation(summary = "Get changes since a cursor",
+            description = "Changes after `since`, oldest first. X-Next-Cursor is the cursor for the next call; "
+                    + "without `since` the list is empty and X-Next-Cursor is the current position")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after the cursor (possibly none)"),
+            @ApiResponse(responseCode = "410", description = "The cursor is too old; reload the task list and start from a new cursor")
+    })
+    public ResponseEntity<List<TaskChange>> getChanges(
+            @Parameter(description = "Cursor: seq of the last change already applied")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Maximum number of changes (1-" + TaskController.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + TaskController.MAX_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > TaskController.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + TaskController.MAX_PAGE_SIZE);
+        }
+        if (since == null) {
+            return ResponseEntity.ok()
+                    .header(TaskController.NEXT_CURSOR_HEADER, String.valueOf(feed.latest()))
+                    .body(List.of());
+        }
+        List<TaskChange> changes = feed.since(since, limit)
+                .orElseThrow(() -> new ChangesExpiredException("Changes after " + since + " are no longer available"));
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return ResponseEntity.ok()
+                .header(TaskController.NEXT_CURSOR_HEADER, String.valueOf(next))
+                .body(changes);
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes",
+            description = "Server-Sent Events: one `change` event per change, with the seq as event id, starting after "
+                    + "Last-Event-ID, `since` or the current position. A `reset` event means the cursor is too old")
+    @ApiResponse(responseCode = "200", description = "Changes are being streamed")
+    public SseEmitter streamChanges(
+            @Parameter(description = "Cursor: seq of the last change already applied")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Set by EventSource on reconnect; takes precedence over since")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long cursor = lastEventId != null ? lastEventId : since != null ? since : feed.latest();
+        SseEmitter emitter = new SseEmitter(0L);
+        streams.execute(() -> stream(emitter, cursor));
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, long cursor) {
+        try {
+            while (true) {
+                Optional<List<TaskChange>> changes = feed.since(cursor, TaskController.MAX_PAGE_SIZE);
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().name("reset").data(feed.latest()));
+                    emitter.complete();
+                    return;
+                }
+                for (TaskChange change : changes.get()) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                    cursor = change.getSeq();
+                }
+                // the heartbeat also notices closed connections: sending to one fails
+                if (changes.get().isEmpty() && !feed.await(cursor, heartbeat)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away (the container completes the request) or the emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+}
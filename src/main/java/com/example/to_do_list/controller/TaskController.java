@@ -1,7 +1,11 @@
 package com.example.to_do_list.controller;
 
+import com.example.to_do_list.dto.BatchOperation;
+import com.example.to_do_list.dto.BatchResult;
 import com.example.to_do_list.model.Task;
 import com.example.to_do_list.service.TaskService;
+import com.example.to_do_list.service.TaskVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,48 +14,145 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 import java.time.LocalDateTime;
 
+/**
+ * JSON reads carry a strong ETag and Last-Modified taken from {@link TaskVersions}: the task's own
+ * version for a single task, the global version for lists. A matching {@code If-None-Match} (or a
+ * current {@code If-Modified-Since}, unless two writes fell into the same second) is answered with
+ * 304; lists are answered before the service is called, a single task only once the (cached)
+ * lookup has found it, so a missing task is always a plain 404. PUT, PATCH
+ * and DELETE accept {@code If-Match} and fail with 412 if the task has changed since.
+ */
 @RestController
 @RequestMapping("/api/tasks")
 @Tag(name = "Task Controller", description = "APIs for managing To-Do tasks")
 public class TaskController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final TaskService taskService;
+    private final TaskVersions versions;
+    // the application's mapper, so streamed tasks look like the ones in JSON responses
+    private final ObjectMapper objectMapper;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskVersions versions, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Whether the client's copy is still current. If so the response has already been turned into
+     * a bodiless 304 and the handler returns null; otherwise ETag and Last-Modified are set on it.
+     * The stamp must be taken before the data is read.
+     */
+    private boolean notModified(WebRequest request, TaskVersions.Stamp stamp) {
+        return notModified(request, versions, stamp);
+    }
+
+    /**
+     * Last-Modified (and so {@code If-Modified-Since}) is left out when it cannot tell the client's
+     * copy apart: after two writes within one second only the ETag decides.
+     */
+    static boolean notModified(WebRequest request, TaskVersions versions, TaskVersions.Stamp stamp) {
+        if (stamp.sharedSecond()) {
+            return request.checkNotModified(versions.etag(stamp));
+        }
+        return request.checkNotModified(versions.etag(stamp), stamp.lastModified());
     }
 
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Retrieve a list of all tasks")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of tasks")
-    public ResponseEntity<List<Task>> getAllTasks() {
-        logger.info("GET /api/tasks - Fetching all tasks");
-        List<Task> tasks = taskService.getAllTasks();
-        logger.info("Found {} tasks", tasks.size());
-        return ResponseEntity.ok(tasks);
+    @Operation(summary = "Get all tasks", description = "Retrieve a list of all tasks, or one page of it when limit or after is given")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of tasks"),
+            @ApiResponse(responseCode = "304", description = "No task has changed since the given ETag")
+    })
+    public ResponseEntity<List<Task>> getAllTasks(
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + "); X-Next-Cursor is set when more tasks may follow")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor: only tasks with an id greater than this one")
+            @RequestParam(required = false) Long after,
+            WebRequest request) {
+        if (notModified(request, versions.current())) {
+            return null;
+        }
+        if (limit == null && after == null) {
+            List<Task> tasks = taskService.getAllTasks();
+            logger.info("GET /api/tasks - {} tasks", tasks.size());
+            return ResponseEntity.ok(tasks);
+        }
+        int size = limit != null ? limit : MAX_PAGE_SIZE;
+        if (size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot exceed " + MAX_PAGE_SIZE);
+        }
+        List<Task> page = taskService.getTasksPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all tasks", description = "Stream tasks as newline-delimited JSON in id order, page by page, without building the whole list")
+    @ApiResponse(responseCode = "200", description = "Tasks are being streamed")
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @Parameter(description = "Cursor: only tasks with an id greater than this one")
+            @RequestParam(required = false) Long after) {
+        StreamingResponseBody body = out -> {
+            Long cursor = after;
+            List<Task> page;
+            do {
+                page = taskService.getTasksPage(cursor, STREAM_CHUNK_SIZE);
+                for (Task task : page) {
+                    out.write(objectMapper.writeValueAsBytes(task));
+                    out.write('\n');
+                }
+                out.flush();
+                if (!page.isEmpty()) {
+                    cursor = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == STREAM_CHUNK_SIZE);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID", description = "Retrieve a specific task by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task found"),
+            @ApiResponse(responseCode = "304", description = "Task has not changed since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
     public ResponseEntity<Task> getTaskById(
             @Parameter(description = "ID of the task to be retrieved")
-            @PathVariable Long id) {
-        return taskService.getTaskById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable Long id,
+            WebRequest request) {
+        // the stamp is taken before the read; the (cached) read comes before the check, so that a
+        // missing task is a plain 404: its stamp would validate tags and dates it never had
+        TaskVersions.Stamp stamp = versions.of(id);
+        Optional<Task> task = taskService.getTaskById(id);
+        if (task.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(request, stamp)) {
+            return null;
+        }
+        return ResponseEntity.ok(task.get());
     }
 
     @PostMapping
@@ -72,14 +173,17 @@ public class TaskController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task updated successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "412", description = "Task has changed since the If-Match ETag")
     })
     public ResponseEntity<Task> updateTask(
             @Parameter(description = "ID of the task to be updated")
             @PathVariable Long id,
             @Parameter(description = "Updated task object")
-            @Valid @RequestBody Task task) {
-        return taskService.updateTask(id, task)
+            @Valid @RequestBody Task task,
+            @Parameter(description = "Only update if the task still has this ETag")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return taskService.updateTask(id, task, ifMatch)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -88,14 +192,17 @@ public class TaskController {
     @Operation(summary = "Partially update a task", description = "Update specific fields of an existing task")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task has changed since the If-Match ETag")
     })
     public ResponseEntity<Task> patchTask(
             @Parameter(description = "ID of the task to be updated")
             @PathVariable Long id,
             @Parameter(description = "Partial task object with fields to update")
-            @RequestBody Task partialUpdate) {
-        return taskService.patchTask(id, partialUpdate)
+            @RequestBody Task partialUpdate,
+            @Parameter(description = "Only update if the task still has this ETag")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return taskService.patchTask(id, partialUpdate, ifMatch)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -104,12 +211,15 @@ public class TaskController {
     @Operation(summary = "Delete a task", description = "Delete a task by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "412", description = "Task has changed since the If-Match ETag")
     })
     public ResponseEntity<Void> deleteTask(
             @Parameter(description = "ID of the task to be deleted")
-            @PathVariable Long id) {
-        boolean deleted = taskService.deleteTask(id);
+            @PathVariable Long id,
+            @Parameter(description = "Only delete if the task still has this ETag")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = taskService.deleteTask(id, ifMatch);
         if (deleted) {
             return ResponseEntity.noContent().build();
         } else {
@@ -117,12 +227,33 @@ public class TaskController {
         }
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Apply a batch of operations",
+            description = "Create, update, patch and delete several tasks in one request. The batch is validated as a whole and persisted with a single store write")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch applied; each result carries the status of its operation"),
+            @ApiResponse(responseCode = "400", description = "At least one operation is invalid; nothing was applied")
+    })
+    public ResponseEntity<List<BatchResult>> applyBatch(
+            @Parameter(description = "Operations to apply, in order")
+            @RequestBody List<BatchOperation> operations) {
+        List<BatchResult> results = taskService.applyBatch(operations);
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Get tasks by status", description = "Retrieve tasks filtered by status")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved filtered tasks")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved filtered tasks"),
+            @ApiResponse(responseCode = "304", description = "No task has changed since the given ETag")
+    })
     public ResponseEntity<List<Task>> getTasksByStatus(
             @Parameter(description = "Status to filter tasks (todo, in_progress, done)")
-            @PathVariable String status) {
+            @PathVariable String status,
+            WebRequest request) {
+        if (notModified(request, versions.current())) {
+            return null;
+        }
         List<Task> tasks = taskService.getTasksByStatus(status);
         return ResponseEntity.ok(tasks);
     }
@@ -0,0 +1,47 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.jfr.TaskRequestEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Emits a {@link TaskRequestEvent} per task API request. The event is kept in a request attribute,
+ * so for async responses (streams, event streams, reactive types) it is begun on the first
+ * dispatch and committed when the last one completes.
+ */
+public class TaskRequestRecorder implements AsyncHandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = TaskRequestRecorder.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) == null) {
+            TaskRequestEvent event = new TaskRequestEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                request.setAttribute(EVENT_ATTRIBUTE, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof TaskRequestEvent event)) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.path = request.getRequestURI();
+            event.handler = handler instanceof HandlerMethod method
+                    ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                    : String.valueOf(handler);
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
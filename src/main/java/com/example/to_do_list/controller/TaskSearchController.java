@@ -0,0 +1,68 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.TaskSearchIndex;
+import com.example.to_do_list.service.TaskVersions;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks/search")
+@Tag(name = "Task Search", description = "Full-text search over task titles and descriptions")
+public class TaskSearchController {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final TaskSearchIndex index;
+    private final TaskVersions versions;
+
+    public TaskSearchController(TaskSearchIndex index, TaskVersions versions) {
+        this.index = index;
+        this.versions = versions;
+    }
+
+    @GetMapping
+    @Operation(summary = "Search tasks",
+            description = "Tasks whose title or description contain every word of the query, words matching by prefix, "
+                    + "best matches first. X-Total-Count is the number of matches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of matching tasks"),
+            @ApiResponse(responseCode = "304", description = "No task has changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Empty query or invalid paging")
+    })
+    public ResponseEntity<List<Task>> search(
+            @Parameter(description = "Search words, e.g. \"купить мол\"")
+            @RequestParam String q,
+            @Parameter(description = "Number of matches to skip")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Page size (1-" + TaskController.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit < 1 || limit > TaskController.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + TaskController.MAX_PAGE_SIZE);
+        }
+        TaskVersions.Stamp stamp = versions.current();
+        if (TaskController.notModified(request, versions, stamp)) {
+            return null;
+        }
+        TaskSearchIndex.Page page = index.search(q, offset, limit);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.total()))
+                .body(page.tasks());
+    }
+}
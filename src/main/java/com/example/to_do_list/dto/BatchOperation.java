@@ -0,0 +1,54 @@
+package com.example.to_do_list.dto;
+
+import com.example.to_do_list.model.Task;
+
+/**
+ * One entry of a batch request: {@code op} is one of create, update, patch or delete.
+ * {@code id} is required for everything but create, {@code task} for everything but delete
+ * (for patch it carries only the fields to change).
+ */
+public class BatchOperation {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String PATCH = "patch";
+    public static final String DELETE = "delete";
+
+    private String op;
+    private Long id;
+    private Task task;
+
+    public BatchOperation() {
+
+    }
+
+    public BatchOperation(String op, Long id, Task task) {
+        this.op = op;
+        this.id = id;
+        this.task = task;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.to_do_list.dto;
+
+import com.example.to_do_list.model.Task;
+
+/**
+ * Outcome of one batch entry, reported with the HTTP status the equivalent single-task call
+ * would have returned (201, 200, 204 or 404).
+ */
+public class BatchResult {
+
+    private final int index;
+    private final String op;
+    private final Long id;
+    private final int status;
+    private final Task task;
+
+    public BatchResult(int index, String op, Long id, int status, Task task) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.task = task;
+    }
+
+    public int getIndex() { return index; }
+    public String getOp() { return op; }
+    public Long getId() { return id; }
+    public int getStatus() { return status; }
+    public Task getTask() { return task; }
+}
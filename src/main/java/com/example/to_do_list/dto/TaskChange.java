@@ -0,0 +1,30 @@
+package com.example.to_do_list.dto;
+
+import com.example.to_do_list.model.Task;
+
+/**
+ * One entry of the change feed: {@code type} is save (the task was created or changed; {@code task}
+ * is its new state) or delete ({@code task} is null). {@code seq} increases by one per change.
+ */
+public class TaskChange {
+
+    public static final String SAVE = "save";
+    public static final String DELETE = "delete";
+
+    private final long seq;
+    private final String type;
+    private final Long id;
+    private final Task task;
+
+    public TaskChange(long seq, String type, Long id, Task task) {
+        this.seq = seq;
+        this.type = type;
+        this.id = id;
+        this.task = task;
+    }
+
+    public long getSeq() { return seq; }
+    public String getType() { return type; }
+    public Long getId() { return id; }
+    public Task getTask() { return task; }
+}
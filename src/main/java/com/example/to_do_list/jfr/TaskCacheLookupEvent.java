@@ -0,0 +1,29 @@
+package com.example.to_do_list.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read through the {@code task} (per id) or {@code tasks} (list views) cache. A miss lasts as
+ * long as the store read it caused, or the wait for another caller's read of the same key.
+ */
+@Name("todo.CacheLookup")
+@Label("Task Cache Lookup")
+@Category({"To-Do List", "Cache"})
+@StackTrace(false)
+public class TaskCacheLookupEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Key")
+    @Description("Task id, or the list view that was read")
+    public String key;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,31 @@
+package com.example.to_do_list.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Time a thread waited for one of the application's locks. Only waits over the threshold are
+ * recorded, so uncontended acquisitions cost no more than a timestamp.
+ * <p>
+ * Call {@link #begin()} just before asking for the lock and {@link #acquired(String)} once it is held.
+ */
+@Name("todo.LockWait")
+@Label("Lock Wait")
+@Category({"To-Do List", "Locks"})
+@Threshold("1 ms")
+public class TaskLockWaitEvent extends Event {
+
+    @Label("Lock")
+    public String lock;
+
+    public void acquired(String lock) {
+        end();
+        if (shouldCommit()) {
+            this.lock = lock;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.to_do_list.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One request to the task API, from the handler being picked until the response is complete
+ * (for streamed responses, until the stream ends).
+ */
+@Name("todo.TaskRequest")
+@Label("Task Request")
+@Category({"To-Do List", "Requests"})
+@Description("A request handled by the task API")
+@StackTrace(false)
+public class TaskRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Handler")
+    @Description("Controller method that served the request")
+    public String handler;
+
+    @Label("Status")
+    public int status;
+}
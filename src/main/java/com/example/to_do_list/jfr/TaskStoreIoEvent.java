@@ -0,0 +1,38 @@
+package com.example.to_do_list.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One read or write of a store's file, including parsing or serializing the tasks in it.
+ */
+@Name("todo.StoreIo")
+@Label("Task Store I/O")
+@Category({"To-Do List", "Store"})
+public class TaskStoreIoEvent extends Event {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Operation")
+    @Description("read or write")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Tasks")
+    @Description("Tasks decoded or written; streaming reads only decode the tasks they return")
+    public long tasks;
+}
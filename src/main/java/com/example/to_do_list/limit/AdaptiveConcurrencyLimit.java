@@ -0,0 +1,162 @@
+package com.example.to_do_list.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the latency of the calls it admits (a gradient limit).
+ * <p>
+ * Completed calls are averaged over windows of {@code windowSize} samples. Each window's average
+ * (the short RTT) is compared with a slow moving average of past windows (the long RTT, i.e. what
+ * the service does when it is not queueing):
+ * <pre>
+ *     gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ *     limit    = limit * gradient + sqrt(limit)
+ * </pre>
+ * smoothed and kept within {@code [min, max]}. While latency stays within {@code tolerance} of the
+ * baseline the limit grows by about its square root per window; once requests start to queue the
+ * gradient drops below 1 and the limit shrinks in proportion, which keeps latency bounded instead
+ * of letting queues build up. Windows in which fewer than half the permits were used say nothing
+ * about the limit and leave it alone, so an idle service does not drift up to {@code max}.
+ * <p>
+ * Publishes {@code tasks.concurrency.limit}, {@code tasks.concurrency.inflight} and
+ * {@code tasks.concurrency.rejected}, tagged with the budget name.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    // weight of a window in the long RTT: about the last 100 windows
+    private static final double LONG_RTT_WEIGHT = 2.0 / (100 + 1);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSize;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter rejected;
+
+    private volatile int limit;
+
+    // window state, guarded by lock; a lock rather than synchronized so that virtual threads
+    // releasing permits do not pin their carriers
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit) {
+        this(name, initialLimit, minLimit, maxLimit, 1.5, 10, new SimpleMeterRegistry());
+    }
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, int windowSize, MeterRegistry registry) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits of " + name + " must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1 || windowSize < 1) {
+            throw new IllegalArgumentException("Tolerance of " + name + " must be >= 1 and its window >= 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSize = windowSize;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        Gauge.builder("tasks.concurrency.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current concurrency limit of the task API budget")
+                .tag("budget", name)
+                .register(registry);
+        Gauge.builder("tasks.concurrency.inflight", this, AdaptiveConcurrencyLimit::getInflight)
+                .description("Task API requests holding a permit of the budget")
+                .tag("budget", name)
+                .register(registry);
+        this.rejected = Counter.builder("tasks.concurrency.rejected")
+                .description("Task API requests shed because the budget was at its limit")
+                .tag("budget", name)
+                .register(registry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public double getRejectedCount() {
+        return rejected.count();
+    }
+
+    /**
+     * Takes a permit if fewer than {@link #getLimit()} are out; every successful call must be
+     * followed by exactly one {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns a permit held for {@code rttNanos}.
+     */
+    public void release(long rttNanos) {
+        int held = inflight.getAndDecrement();
+        lock.lock();
+        try {
+            windowNanos += rttNanos;
+            windowMaxInflight = Math.max(windowMaxInflight, held);
+            if (++windowSamples < windowSize) {
+                return;
+            }
+            update((double) windowNanos / windowSamples, windowMaxInflight);
+            windowNanos = 0;
+            windowSamples = 0;
+            windowMaxInflight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds lock
+    private void update(double shortRtt, int maxInflight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_WEIGHT;
+        }
+        if (longRtt > 2 * shortRtt) {
+            // latency settled well below the baseline (e.g. after a slow period): catch up faster
+            longRtt *= 0.95;
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / Math.max(shortRtt, 1)));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
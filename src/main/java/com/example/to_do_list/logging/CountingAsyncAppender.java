@@ -0,0 +1,44 @@
+package com.example.to_do_list.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts the events it drops instead of dropping them silently:
+ * {@link #getDiscardedCount() discarded} are INFO-and-below events turned away because the queue
+ * was past its {@code discardingThreshold}, {@link #getRejectedCount() rejected} are events of any
+ * level turned away because the queue was full and {@code neverBlock} is set.
+ * <p>
+ * The checks run before the parent's own, with the same conditions, so what the parent would have
+ * dropped is counted here. The one miss is a writer that sees a free slot which another writer
+ * takes first; the parent then drops its event uncounted.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (remaining == 0 && isNeverBlock()) {
+            rejected.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
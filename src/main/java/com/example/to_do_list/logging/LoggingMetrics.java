@@ -0,0 +1,66 @@
+package com.example.to_do_list.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes what the logging pipeline throws away, for the appenders and filters configured in
+ * {@code logback-spring.xml}:
+ * <ul>
+ *     <li>{@code logging.events.dropped} (tags {@code appender}, {@code reason=discarded|queue_full})
+ *     and {@code logging.queue.remaining} for each {@link CountingAsyncAppender} on the root logger;</li>
+ *     <li>{@code logging.events.suppressed} (tag {@code filter}) for each {@link RequestLogRateLimiter}.</li>
+ * </ul>
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof CountingAsyncAppender appender) {
+                bind(registry, appender);
+            }
+        }
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof RequestLogRateLimiter limiter) {
+                FunctionCounter.builder("logging.events.suppressed", limiter, RequestLogRateLimiter::getSuppressedCount)
+                        .description("Log lines denied by the request log rate limit")
+                        .tag("filter", String.valueOf(limiter.getName()))
+                        .register(registry);
+            }
+        }
+    }
+
+    private static void bind(MeterRegistry registry, CountingAsyncAppender appender) {
+        FunctionCounter.builder("logging.events.dropped", appender, CountingAsyncAppender::getDiscardedCount)
+                .description("Log events the async appender dropped")
+                .tag("appender", appender.getName())
+                .tag("reason", "discarded")
+                .register(registry);
+        FunctionCounter.builder("logging.events.dropped", appender, CountingAsyncAppender::getRejectedCount)
+                .description("Log events the async appender dropped")
+                .tag("appender", appender.getName())
+                .tag("reason", "queue_full")
+                .register(registry);
+        Gauge.builder("logging.queue.remaining", appender, CountingAsyncAppender::getRemainingCapacity)
+                .description("Free slots in the async appender's queue")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.to_do_list.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the per-request log lines of the configured loggers at {@code maxPerSecond}, shared across
+ * them; the rest of the second's lines are denied and counted. Events above {@code maxLevel}
+ * (WARN by default) and ERROR events are never limited.
+ * <p>
+ * A turbo filter runs before logback formats the message or creates the event, so a line that is
+ * denied costs no allocation.
+ */
+public class RequestLogRateLimiter extends TurboFilter {
+
+    private String[] loggers = new String[0];
+    private Level maxLevel = Level.WARN;
+    private int maxPerSecond = 100;
+
+    // the current second in the high bits, the lines let through in it in the low 20 bits
+    private static final int COUNT_BITS = 20;
+    private final AtomicLong window = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.ERROR) || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || level.toInt() > maxLevel.toInt() || !limits(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (admit()) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    private boolean limits(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean admit() {
+        long second = System.currentTimeMillis() / 1000;
+        while (true) {
+            long current = window.get();
+            long count = current >>> COUNT_BITS == second ? current & ((1L << COUNT_BITS) - 1) : 0;
+            if (count >= maxPerSecond) {
+                return false;
+            }
+            if (window.compareAndSet(current, second << COUNT_BITS | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (maxPerSecond < 0 || maxPerSecond >= 1 << COUNT_BITS) {
+            addError("maxPerSecond must be between 0 and " + ((1 << COUNT_BITS) - 1));
+            return;
+        }
+        super.start();
+    }
+
+    /**
+     * Comma-separated logger name prefixes to limit.
+     */
+    public void setLoggers(String loggers) {
+        this.loggers = loggers.isBlank() ? new String[0] : loggers.trim().split("\\s*,\\s*");
+    }
+
+    /**
+     * Highest level that is limited; ERROR is never limited.
+     */
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.to_do_list.repository;
 
 import com.example.to_do_list.model.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
-}
\ No newline at end of file
+
+    List<Task> findByStatusOrderById(String status);
+
+    List<Task> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    List<Task> findAllByOrderById(Pageable pageable);
+}
@@ -0,0 +1,62 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.ReactiveTaskStore;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+
+/**
+ * {@link TaskService} for the reactive API. Each call runs the blocking service method on the
+ * bounded store scheduler, so caching, validation and cache invalidation are the same as in the
+ * MVC API. Only the full list is streamed from the {@link ReactiveTaskStore}.
+ */
+@Service
+public class ReactiveTaskService {
+
+    private final TaskService taskService;
+    private final ReactiveTaskStore store;
+    private final Scheduler scheduler;
+
+    public ReactiveTaskService(TaskService taskService, ReactiveTaskStore store, Scheduler taskStoreScheduler) {
+        this.taskService = taskService;
+        this.store = store;
+        this.scheduler = taskStoreScheduler;
+    }
+
+    public Flux<Task> getAllTasks(Long after) {
+        return store.findAll(after);
+    }
+
+    public Mono<Task> getTaskById(Long id) {
+        return offload(() -> taskService.getTaskById(id).orElse(null));
+    }
+
+    public Flux<Task> getTasksByStatus(String status) {
+        return offload(() -> taskService.getTasksByStatus(status)).flatMapIterable(tasks -> tasks);
+    }
+
+    public Mono<Task> createTask(Task task) {
+        return offload(() -> taskService.createTask(task));
+    }
+
+    public Mono<Task> updateTask(Long id, Task task) {
+        return offload(() -> taskService.updateTask(id, task).orElse(null));
+    }
+
+    public Mono<Task> patchTask(Long id, Task partial) {
+        return offload(() -> taskService.patchTask(id, partial).orElse(null));
+    }
+
+    public Mono<Boolean> deleteTask(Long id) {
+        return offload(() -> taskService.deleteTask(id));
+    }
+
+    // a null result completes the Mono empty
+    private <T> Mono<T> offload(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.jfr.TaskCacheLookupEvent;
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.TaskStore;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-id task cache in front of the store.
+ * <p>
+ * Misses go through a Caffeine {@link AsyncLoadingCache}, so concurrent misses for the same id share
+ * one store read, and hot entries are reloaded in the background after {@code refreshAfterWrite}
+ * instead of all expiring at once. Lookups that found nothing are cached too (so repeated 404s do
+ * not hit the store) but only for the shorter {@code negativeTtl}. Writers invalidate exactly the
+ * id they touched; an invalidation drops an in-flight load of that id, so a load that started
+ * before the write cannot put a stale value back afterwards.
+ * <p>
+ * Loads run on virtual threads and callers wait on the load's future. A synchronous loading cache
+ * would do the store read inside the map's bin lock ({@code synchronized}), which pins the carrier
+ * thread of a virtual-thread request for the whole read.
+ * <p>
+ * Configured in {@link com.example.to_do_list.config.CacheConfig}.
+ */
+public class TaskCache {
+
+    private final TaskStore store;
+    private final AsyncLoadingCache<Long, Optional<Task>> cache;
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskCache(TaskStore store, long maximumSize, Duration expireAfterWrite, Duration negativeTtl,
+                     Duration refreshAfterWrite, MeterRegistry registry) {
+        this.store = store;
+        long positiveNanos = expireAfterWrite.toNanos();
+        long negativeNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<Task>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Task> task, long currentTime) {
+                        return task.isPresent() ? positiveNanos : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Task> task, long currentTime, long currentDuration) {
+                        return task.isPresent() ? positiveNanos : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Task> task, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(loader)
+                .recordStats()
+                .buildAsync(this.store::findById);
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "task");
+    }
+
+    public Optional<Task> get(Long id) {
+        TaskCacheLookupEvent event = new TaskCacheLookupEvent();
+        if (event.isEnabled()) {
+            // the map view does not count towards the cache statistics
+            event.hit = cache.asMap().containsKey(id);
+        }
+        event.begin();
+        try {
+            return cache.get(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.cache = "task";
+                event.key = String.valueOf(id);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Call after any write that created, changed or removed the task, including creates:
+     * the new id may still have a cached "not found".
+     */
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /** Stops the load and refresh threads; lookups that still miss afterwards fail. */
+    @PreDestroy
+    public void close() {
+        loader.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.dto.TaskChange;
+import com.example.to_do_list.model.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent changes to the task dataset, in sequence order, for clients that sync deltas
+ * instead of refetching the list. Sequence numbers are the versions {@link TaskVersions} assigns,
+ * one per saved or deleted task, so they follow the write path and have no gaps.
+ * <p>
+ * Only the last {@code retention} changes are kept, in a ring buffer. A client whose cursor is
+ * older than that (or from before a restart) has to reload the full list and continue from
+ * {@link #latest()}.
+ */
+@Component
+public class TaskChangeFeed implements TaskVersions.Listener {
+
+    private final TaskChange[] ring;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // oldest retained sequence number, 0 while nothing has been retained
+    private long first;
+    private long latest;
+
+    public TaskChangeFeed(TaskVersions versions, @Value("${todo.changes.retention:10000}") int retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("Change retention must be positive");
+        }
+        this.ring = new TaskChange[retention];
+        this.latest = versions.current().version();
+        versions.addListener(this);
+    }
+
+    @Override
+    public void changed(long version, Long id, Task task) {
+        TaskChange change = new TaskChange(version, task != null ? TaskChange.SAVE : TaskChange.DELETE, id, task);
+        lock.lock();
+        try {
+            ring[slot(version)] = change;
+            latest = version;
+            if (first == 0) {
+                first = version;
+            } else if (latest - first >= ring.length) {
+                first = latest - ring.length + 1;
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sequence number of the last change; a cursor that is up to date.
+     */
+    public long latest() {
+        lock.lock();
+        try {
+            return latest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, oldest first; empty if {@code since} is
+     * already current. Returns {@link Optional#empty()} if some changes after {@code since} are no
+     * longer retained, or if {@code since} was not issued by this feed.
+     */
+    public Optional<List<TaskChange>> since(long since, int limit) {
+        lock.lock();
+        try {
+            if (since > latest || (since < latest && (first == 0 || since < first - 1))) {
+                return Optional.empty();
+            }
+            int count = (int) Math.min(limit, latest - since);
+            List<TaskChange> changes = new ArrayList<>(count);
+            for (long seq = since + 1; seq <= since + count; seq++) {
+                changes.add(ring[slot(seq)]);
+            }
+            return Optional.of(changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until there is a change after {@code since}. Returns false if the timeout elapsed first.
+     */
+    public boolean await(long since, Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (latest <= since) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) Math.floorMod(seq, (long) ring.length);
+    }
+}
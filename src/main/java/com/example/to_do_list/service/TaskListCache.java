@@ -0,0 +1,261 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.jfr.TaskCacheLookupEvent;
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.TaskStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cached "all tasks" and "tasks by status" views that are kept up to date on every write
+ * instead of being evicted wholesale.
+ * <p>
+ * The dataset is loaded from the store once (concurrent misses share that single load) into an
+ * id-ordered map plus one map per status, which hold the same task objects. Each write re-reads
+ * only the affected task and patches those maps. The lists handed to callers are read-only live
+ * views of the maps rather than copies, so neither a write nor a read costs a pass over the whole
+ * dataset; like a store read running next to writes, iterating one may see some of them.
+ * <p>
+ * Besides its own {@code tasks.view.*} meters it publishes the standard {@code cache.gets},
+ * {@code cache.evictions} and {@code cache.size} meters under {@code cache=tasks}, next to the
+ * per-id {@code task} cache.
+ */
+@Component
+public class TaskListCache {
+
+    private final TaskStore store;
+
+    // guards loading and patching of the maps below
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ConcurrentSkipListMap<Long, Task> byId;
+    private final Map<String, ConcurrentSkipListMap<Long, Task>> byStatus = new ConcurrentHashMap<>();
+    private final List<Task> allView = new LiveView(this::loaded);
+
+    private final Counter allHits;
+    private final Counter allMisses;
+    private final Counter statusHits;
+    private final Counter statusMisses;
+    private final Counter loads;
+    private final Counter evictions;
+
+    public TaskListCache(TaskStore store, MeterRegistry registry) {
+        this.store = store;
+        this.allHits = requests(registry, "all", "hit");
+        this.allMisses = requests(registry, "all", "miss");
+        this.statusHits = requests(registry, "status", "hit");
+        this.statusMisses = requests(registry, "status", "miss");
+        this.loads = Counter.builder("tasks.view.loads")
+                .description("Full reloads of the task list views from the store")
+                .register(registry);
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Times the cached task list was dropped as a whole")
+                .tag("cache", "tasks")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, cache -> cache.allHits.count() + cache.statusHits.count())
+                .tag("cache", "tasks")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, cache -> cache.allMisses.count() + cache.statusMisses.count())
+                .tag("cache", "tasks")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", this, cache -> {
+                    Map<Long, Task> tasks = cache.byId;
+                    return tasks == null ? 0 : tasks.size();
+                })
+                .description("Tasks held by the cached task list")
+                .tag("cache", "tasks")
+                .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String view, String result) {
+        return Counter.builder("tasks.view.requests")
+                .description("Reads of the cached task list views")
+                .tag("view", view)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // a miss is a read that had to load the dataset first
+    public List<Task> getAll() {
+        TaskCacheLookupEvent event = new TaskCacheLookupEvent();
+        event.begin();
+        boolean hit = byId != null;
+        (hit ? allHits : allMisses).increment();
+        loaded();
+        lookedUp(event, null, hit);
+        return allView;
+    }
+
+    public List<Task> getByStatus(String status) {
+        TaskCacheLookupEvent event = new TaskCacheLookupEvent();
+        event.begin();
+        boolean hit = byId != null;
+        (hit ? statusHits : statusMisses).increment();
+        loaded();
+        lookedUp(event, status, hit);
+        // looked up on every iteration: the status may only get its first task later, and
+        // unknown statuses must not leave empty maps behind
+        return new LiveView(() -> {
+            loaded();
+            Map<Long, Task> tasks = byStatus.get(status);
+            return tasks != null ? tasks : Map.of();
+        });
+    }
+
+    // status is null for the view of all tasks
+    private static void lookedUp(TaskCacheLookupEvent event, String status, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = "tasks";
+            event.key = status == null ? "all" : "status:" + status;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Brings the cached copy of one task in line with the store after it was written. The task is
+     * re-read rather than taken from the caller so that racing writers cannot apply out of order.
+     */
+    public void refresh(Long id) {
+        lock.lock();
+        try {
+            if (byId == null) {
+                // nothing loaded yet; the first load runs after this write and will see it
+                return;
+            }
+            apply(id, store.findById(id).orElse(null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #refresh(Long)} for several tasks written together, with a single store read.
+     */
+    public void refreshAll(Collection<Long> ids) {
+        lock.lock();
+        try {
+            if (byId == null) {
+                return;
+            }
+            Map<Long, Task> found = new HashMap<>();
+            for (Task task : store.findAllById(ids)) {
+                found.put(task.getId(), task);
+            }
+            for (Long id : ids) {
+                apply(id, found.get(id));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds the lock
+    private void apply(Long id, Task current) {
+        Task previous = current != null ? byId.put(id, current) : byId.remove(id);
+        if (previous != null && previous.getStatus() != null) {
+            Map<Long, Task> tasks = byStatus.get(previous.getStatus());
+            if (tasks != null) {
+                tasks.remove(id);
+            }
+        }
+        if (current != null && current.getStatus() != null) {
+            byStatus.computeIfAbsent(current.getStatus(), s -> new ConcurrentSkipListMap<>()).put(id, current);
+        }
+    }
+
+    /**
+     * Drops everything; the next read reloads from the store.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            if (byId != null) {
+                evictions.increment();
+            }
+            byId = null;
+            byStatus.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ConcurrentSkipListMap<Long, Task> loaded() {
+        ConcurrentSkipListMap<Long, Task> tasks = byId;
+        if (tasks != null) {
+            return tasks;
+        }
+        lock.lock();
+        try {
+            if (byId == null) {
+                ConcurrentSkipListMap<Long, Task> loadedTasks = new ConcurrentSkipListMap<>();
+                for (Task task : store.findAll()) {
+                    loadedTasks.put(task.getId(), task);
+                    if (task.getStatus() != null) {
+                        byStatus.computeIfAbsent(task.getStatus(), s -> new ConcurrentSkipListMap<>()).put(task.getId(), task);
+                    }
+                }
+                loads.increment();
+                byId = loadedTasks;
+            }
+            return byId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read-only list over the values of an id-ordered map, fetched on every use so that it follows
+     * a reload. Not {@link java.util.RandomAccess}, so Jackson and other callers iterate it instead
+     * of calling {@link #get} (which walks the map); {@link #size} walks it as well.
+     */
+    private static final class LiveView extends AbstractList<Task> {
+
+        private final Supplier<Map<Long, Task>> tasks;
+
+        LiveView(Supplier<Map<Long, Task>> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return Collections.unmodifiableCollection(tasks.get().values()).iterator();
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int i = 0;
+            for (Task task : tasks.get().values()) {
+                if (i++ == index) {
+                    return task;
+                }
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        public int size() {
+            return tasks.get().size();
+        }
+    }
+}
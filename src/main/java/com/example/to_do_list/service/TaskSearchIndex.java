@@ -0,0 +1,266 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.TaskStore;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over task titles and descriptions for {@code GET /api/tasks/search}.
+ * <p>
+ * Text is split into runs of Unicode letters and digits, NFKC-normalized and lower-cased, with
+ * "ё" folded to "е". Every query term must match the start of some word in the task (so "зад"
+ * finds "задача"); tasks are ranked by the sum over query terms of idf times a saturated term
+ * frequency, with title words weighing more than description words and whole-word matches more
+ * than prefix matches.
+ * <p>
+ * The index is built from the store on the first search and from then on kept current from the
+ * {@link TaskVersions} change stream, one task at a time, so writes never trigger a rebuild. The
+ * build reads the store without holding the index lock: changes published meanwhile are queued
+ * and applied when the new index is swapped in, so listeners never wait for the store.
+ */
+@Component
+public class TaskSearchIndex implements TaskVersions.Listener {
+
+    public record Page(long total, List<Task> tasks) {
+    }
+
+    private record Hit(Task task, double score) {
+    }
+
+    private record Change(Long id, Task task) {
+    }
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final TaskStore store;
+    // guards index and backlog; never held while reading the store
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // one build at a time; searches wait here, not on the index lock
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private Index index = new Index();
+    // changes published while a build reads the store; null when no build is running
+    private List<Change> backlog;
+    private volatile boolean loaded;
+
+    public TaskSearchIndex(TaskStore store, TaskVersions versions) {
+        this.store = store;
+        versions.addListener(this);
+    }
+
+    @Override
+    public void changed(long version, Long id, Task task) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                index.apply(id, task);
+            } else if (backlog != null) {
+                backlog.add(new Change(id, task));
+            }
+            // else no build has started yet; it reads the store, which already includes this change
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain at least one letter or digit");
+        }
+        ensureLoaded();
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = score(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> both = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double other = termScores.get(entry.getKey());
+                        if (other != null) {
+                            both.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                hits.add(new Hit(index.tasks.get(entry.getKey()), entry.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort((a, b) -> a.score() != b.score()
+                ? Double.compare(b.score(), a.score())
+                : Long.compare(a.task().getId(), b.task().getId()));
+        List<Task> page = new ArrayList<>();
+        for (int i = offset; i < hits.size() && page.size() < limit; i++) {
+            page.add(hits.get(i).task());
+        }
+        return new Page(hits.size(), page);
+    }
+
+    // caller holds the read lock
+    private Map<Long, Double> score(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documents = Math.max(index.tasks.size(), 1);
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : index.postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Map<Long, Integer> matches = entry.getValue();
+            double idf = Math.log(1 + (double) documents / matches.size());
+            double factor = entry.getKey().equals(queryTerm) ? 1 : PREFIX_FACTOR;
+            for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+                double frequency = match.getValue();
+                double score = idf * factor * frequency / (frequency + 1.2);
+                // one query term counts once per task: its best-matching word
+                scores.merge(match.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        buildLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                backlog = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Index built = new Index();
+            boolean complete = false;
+            try {
+                Long after = null;
+                List<Task> page;
+                do {
+                    page = store.findPage(after, LOAD_PAGE_SIZE);
+                    for (Task task : page) {
+                        built.add(task);
+                        after = task.getId();
+                    }
+                } while (page.size() == LOAD_PAGE_SIZE);
+                complete = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    List<Change> changes = backlog;
+                    backlog = null;
+                    // a failed build is dropped and the next search starts over
+                    if (complete) {
+                        // in version order; ones the pages already reflect are applied again harmlessly
+                        for (Change change : changes) {
+                            built.apply(change.id(), change.task());
+                        }
+                        index = built;
+                        loaded = true;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * The index structures; read under the read lock, changed under the write lock (or before
+     * they are published, while being built).
+     */
+    private static final class Index {
+
+        // term -> task id -> weighted occurrences; sorted so that a prefix is a contiguous range
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Task> tasks = new HashMap<>();
+        private final Map<Long, Map<String, Integer>> termsByTask = new HashMap<>();
+
+        void apply(Long id, Task task) {
+            remove(id);
+            if (task != null) {
+                add(task);
+            }
+        }
+
+        void add(Task task) {
+            Map<String, Integer> terms = new HashMap<>();
+            for (String term : tokenize(task.getTitle())) {
+                terms.merge(term, TITLE_WEIGHT, Integer::sum);
+            }
+            for (String term : tokenize(task.getDescription())) {
+                terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+            }
+            tasks.put(task.getId(), task);
+            termsByTask.put(task.getId(), terms);
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(task.getId(), term.getValue());
+            }
+        }
+
+        void remove(Long id) {
+            tasks.remove(id);
+            Map<String, Integer> terms = termsByTask.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms.keySet()) {
+                Map<Long, Integer> matches = postings.get(term);
+                matches.remove(id);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replace('ё', 'е');
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                term.appendCodePoint(codePoint);
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+}
@@ -1,107 +1,344 @@
 package com.example.to_do_list.service;
 
+import com.example.to_do_list.dto.BatchOperation;
+import com.example.to_do_list.dto.BatchResult;
+import com.example.to_do_list.exception.PreconditionFailedException;
 import com.example.to_do_list.model.Task;
 import com.example.to_do_list.store.TaskStore;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class TaskService {
 
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final Set<String> ALLOWED_STATUSES = Set.of("todo", "in_progress", "done");
+    private static final Set<String> BATCH_OPERATIONS = Set.of(
+            BatchOperation.CREATE, BatchOperation.UPDATE, BatchOperation.PATCH, BatchOperation.DELETE);
+
     private final TaskStore taskRepository;
+    private final TaskListCache listCache;
+    private final TaskCache taskCache;
+    private final TaskVersions versions;
 
-    public TaskService(TaskStore taskRepository) {
+    public TaskService(TaskStore taskRepository, TaskListCache listCache, TaskCache taskCache, TaskVersions versions) {
         this.taskRepository = taskRepository;
+        this.listCache = listCache;
+        this.taskCache = taskCache;
+        this.versions = versions;
     }
 
-    // Кэшируем список всех задач
-    @Cacheable(value = "tasks")
+    // Список всех задач → представление, которое обновляется точечно при каждой записи
     public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+        return listCache.getAll();
+    }
+
+    // Страница по курсору (id последней полученной задачи) — не кэшируем, читаем из упорядоченного индекса
+    public List<Task> getTasksPage(Long after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return taskRepository.findPage(after, limit);
     }
 
-    // Кэшируем конкретную задачу по ID
-    @Cacheable(value = "task", key = "#id")
+    // Конкретная задача по ID → TaskCache (кэширует и отсутствие задачи, но ненадолго)
     public Optional<Task> getTaskById(Long id) {
-        return taskRepository.findById(id);
+        return taskCache.get(id);
     }
 
-    // Создание задачи → очищаем кэш списка
+    // Создание задачи → сбрасываем возможный закэшированный 404 по новому ID + добавляем в список
     @Transactional
-    @CacheEvict(value = {"tasks"}, allEntries = true)
     public Task createTask(Task task) {
         if (task.getStatus() == null) {
             task.setStatus("todo");
         }
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        versions.touch(List.of(saved), List.of(), () -> refreshCaches(saved.getId()));
+        return saved;
     }
 
-    // Полное обновление задачи → обновляем кэш по ID + очищаем список
     @Transactional
-    @CachePut(value = "task", key = "#id")
-    @CacheEvict(value = "tasks", allEntries = true)
     public Optional<Task> updateTask(Long id, Task task) {
-        if (!taskRepository.existsById(id)) {
-            return Optional.empty();
+        return updateTask(id, task, null);
+    }
+
+    // Полное обновление задачи → сбрасываем кэш по ID + точечно обновляем список.
+    // ifMatch (значение If-Match, может быть null) проверяется под блокировкой ID до записи
+    @Transactional
+    public Optional<Task> updateTask(Long id, Task task, String ifMatch) {
+        List<ReentrantLock> locks = versions.lock(List.of(id));
+        try {
+            if (!taskRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            checkVersion(id, ifMatch);
+            task.setId(id);
+            Task saved = taskRepository.save(task);
+            versions.touch(List.of(saved), List.of(), () -> refreshCaches(id));
+            return Optional.of(saved);
+        } finally {
+            versions.unlock(locks);
         }
-        task.setId(id);
-        return Optional.of(taskRepository.save(task));
     }
 
-    // Частичное обновление → обновляем кэш по ID + очищаем список
     @Transactional
-    @CachePut(value = "task", key = "#id")
-    @CacheEvict(value = "tasks", allEntries = true)
     public Optional<Task> patchTask(Long id, Task partial) {
-        return taskRepository.findById(id)
-                .map(existing -> {
-                    // Validate and apply partial updates
-                    if (partial.getTitle() != null) {
-                        if (partial.getTitle().isBlank()) {
-                            throw new IllegalArgumentException("Title cannot be blank");
-                        }
-                        existing.setTitle(partial.getTitle());
-                    }
-                    if (partial.getDescription() != null) {
-                        if (partial.getDescription().length() > 1000) {
-                            throw new IllegalArgumentException("Description is too long");
-                        }
-                        existing.setDescription(partial.getDescription());
-                    }
-                    if (partial.getStatus() != null) {
-                        // allowed statuses
-                        final Set<String> allowed = Set.of("todo", "in_progress", "done");
-                        if (!allowed.contains(partial.getStatus())) {
-                            throw new IllegalArgumentException("Invalid status: " + partial.getStatus());
-                        }
-                        existing.setStatus(partial.getStatus());
-                    }
-                    return taskRepository.save(existing);
-                });
+        return patchTask(id, partial, null);
+    }
+
+    // Частичное обновление → сбрасываем кэш по ID + точечно обновляем список
+    @Transactional
+    public Optional<Task> patchTask(Long id, Task partial, String ifMatch) {
+        List<ReentrantLock> locks = versions.lock(List.of(id));
+        try {
+            Optional<Task> patched = taskRepository.findById(id)
+                    .map(existing -> {
+                        checkVersion(id, ifMatch);
+                        validatePatch(partial);
+                        applyPatch(existing, partial);
+                        return taskRepository.save(existing);
+                    });
+            patched.ifPresent(task -> versions.touch(List.of(task), List.of(), () -> refreshCaches(id)));
+            return patched;
+        } finally {
+            versions.unlock(locks);
+        }
     }
 
-    // Удаление → очищаем кэш по ID + очищаем список
     @Transactional
-    @CacheEvict(value = {"task", "tasks"}, key = "#id", allEntries = true)
     public boolean deleteTask(Long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return true;
+        return deleteTask(id, null);
+    }
+
+    // Удаление → сбрасываем только этот ID + убираем задачу из представлений списка
+    @Transactional
+    public boolean deleteTask(Long id, String ifMatch) {
+        List<ReentrantLock> locks = versions.lock(List.of(id));
+        try {
+            if (taskRepository.existsById(id)) {
+                checkVersion(id, ifMatch);
+                taskRepository.deleteById(id);
+                versions.touch(List.of(), List.of(id), () -> refreshCaches(id));
+                return true;
+            }
+            return false;
+        } finally {
+            versions.unlock(locks);
         }
-        return false;
     }
 
-    // Фильтрация по статусу — не кэшируем, т.к. зависит от getAllTasks()
+    // Фильтрация по статусу → представление по статусу, обновляется вместе со списком
     public List<Task> getTasksByStatus(String status) {
-        return getAllTasks().stream()
-            .filter(task -> status.equals(task.getStatus()))
-            .toList();
+        return listCache.getByStatus(status);
+    }
+
+    // Пакет операций → проверяем целиком, затем одна запись в хранилище и одно обновление кэшей
+    @Transactional
+    public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+        validateBatch(operations);
+
+        Set<Long> ids = new HashSet<>();
+        for (BatchOperation operation : operations) {
+            if (!BatchOperation.CREATE.equals(operation.getOp())) {
+                ids.add(operation.getId());
+            }
+        }
+        List<ReentrantLock> locks = versions.lock(ids);
+        try {
+            return applyBatchLocked(operations, ids);
+        } finally {
+            versions.unlock(locks);
+        }
+    }
+
+    private List<BatchResult> applyBatchLocked(List<BatchOperation> operations, Set<Long> ids) {
+        Map<Long, Task> current = new HashMap<>();
+        for (Task task : taskRepository.findAllById(ids)) {
+            current.put(task.getId(), task);
+        }
+
+        // operations are applied in order to this working copy; only the net effect is written
+        Map<Long, Task> saves = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+        List<Task> creates = new ArrayList<>();
+        Task[] outcomes = new Task[operations.size()];
+        int[] statuses = new int[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            Long id = operation.getId();
+            switch (operation.getOp()) {
+                case BatchOperation.CREATE -> {
+                    Task task = operation.getTask();
+                    task.setId(null);
+                    if (task.getStatus() == null) {
+                        task.setStatus("todo");
+                    }
+                    creates.add(task);
+                    outcomes[i] = task;
+                    statuses[i] = HttpStatus.CREATED.value();
+                }
+                case BatchOperation.UPDATE -> {
+                    if (current.containsKey(id)) {
+                        Task task = operation.getTask();
+                        task.setId(id);
+                        current.put(id, task);
+                        saves.put(id, task);
+                        outcomes[i] = task;
+                        statuses[i] = HttpStatus.OK.value();
+                    } else {
+                        statuses[i] = HttpStatus.NOT_FOUND.value();
+                    }
+                }
+                case BatchOperation.PATCH -> {
+                    Task existing = current.get(id);
+                    if (existing != null) {
+                        Task task = new Task(id, existing.getTitle(), existing.getDescription(), existing.getStatus());
+                        applyPatch(task, operation.getTask());
+                        current.put(id, task);
+                        saves.put(id, task);
+                        outcomes[i] = task;
+                        statuses[i] = HttpStatus.OK.value();
+                    } else {
+                        statuses[i] = HttpStatus.NOT_FOUND.value();
+                    }
+                }
+                default -> {
+                    if (current.remove(id) != null) {
+                        saves.remove(id);
+                        deletes.add(id);
+                        statuses[i] = HttpStatus.NO_CONTENT.value();
+                    } else {
+                        statuses[i] = HttpStatus.NOT_FOUND.value();
+                    }
+                }
+            }
+        }
+
+        if (!saves.isEmpty() || !creates.isEmpty() || !deletes.isEmpty()) {
+            List<Task> toSave = new ArrayList<>(saves.values());
+            toSave.addAll(creates);
+            taskRepository.applyBatch(toSave, deletes);
+
+            Set<Long> touched = new HashSet<>(deletes);
+            for (Task task : toSave) {
+                touched.add(task.getId());
+            }
+            versions.touch(toSave, deletes, () -> {
+                taskCache.invalidateAll(touched);
+                listCache.refreshAll(touched);
+            });
+        }
+
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            Long id = outcomes[i] != null ? outcomes[i].getId() : operation.getId();
+            results.add(new BatchResult(i, operation.getOp(), id, statuses[i], outcomes[i]));
+        }
+        return results;
+    }
+
+    // вызывается после коммита (см. TaskVersions.touch), иначе параллельный промах кэша
+    // успел бы загрузить старую строку, а откат оставил бы в кэшах незакоммиченные данные
+    private void refreshCaches(Long id) {
+        taskCache.invalidate(id);
+        listCache.refresh(id);
+    }
+
+    private void checkVersion(Long id, String ifMatch) {
+        if (ifMatch != null && !versions.matches(id, ifMatch)) {
+            throw new PreconditionFailedException("Task " + id + " has been modified; current ETag is "
+                    + versions.etag(versions.of(id)));
+        }
+    }
+
+    private void validateBatch(List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one operation");
+        }
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " operations");
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            try {
+                if (operation == null) {
+                    throw new IllegalArgumentException("Operation is required");
+                }
+                String op = operation.getOp();
+                if (op == null || !BATCH_OPERATIONS.contains(op)) {
+                    throw new IllegalArgumentException("Unknown op: " + op);
+                }
+                if (!BatchOperation.CREATE.equals(op) && operation.getId() == null) {
+                    throw new IllegalArgumentException("Id is required for " + op);
+                }
+                if (!BatchOperation.DELETE.equals(op) && operation.getTask() == null) {
+                    throw new IllegalArgumentException("Task is required for " + op);
+                }
+                if (BatchOperation.PATCH.equals(op)) {
+                    validatePatch(operation.getTask());
+                } else if (!BatchOperation.DELETE.equals(op)) {
+                    validateFull(operation.getTask(), BatchOperation.CREATE.equals(op));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add("operations[" + i + "]: " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+    }
+
+    // Те же правила, что и аннотации валидации на Task (для пакета @Valid не применяется)
+    private void validateFull(Task task, boolean create) {
+        if (task.getTitle() == null || task.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (task.getTitle().length() > 255) {
+            throw new IllegalArgumentException("Title must be between 1 and 255 characters");
+        }
+        if (task.getDescription() != null && task.getDescription().length() > 1000) {
+            throw new IllegalArgumentException("Description cannot exceed 1000 characters");
+        }
+        if (task.getStatus() == null && !create) {
+            throw new IllegalArgumentException("Status is required");
+        }
+    }
+
+    private void validatePatch(Task partial) {
+        if (partial.getTitle() != null && partial.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title cannot be blank");
+        }
+        if (partial.getDescription() != null && partial.getDescription().length() > 1000) {
+            throw new IllegalArgumentException("Description is too long");
+        }
+        if (partial.getStatus() != null && !ALLOWED_STATUSES.contains(partial.getStatus())) {
+            throw new IllegalArgumentException("Invalid status: " + partial.getStatus());
+        }
+    }
+
+    private void applyPatch(Task existing, Task partial) {
+        if (partial.getTitle() != null) {
+            existing.setTitle(partial.getTitle());
+        }
+        if (partial.getDescription() != null) {
+            existing.setDescription(partial.getDescription());
+        }
+        if (partial.getStatus() != null) {
+            existing.setStatus(partial.getStatus());
+        }
     }
 }
@@ -0,0 +1,222 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.jfr.TaskLockWaitEvent;
+import com.example.to_do_list.model.Task;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Monotonic change versions for the task dataset (global) and for each task, kept in memory so
+ * that conditional GETs can be answered without reading the store.
+ * <p>
+ * Each task a write saves or deletes gets the next global version, which doubles as the sequence
+ * number of that change for {@link Listener}s such as {@link TaskChangeFeed}. Versions start from
+ * the startup time in microseconds, so they keep increasing across restarts unless the previous
+ * run averaged more than a thousand changes per millisecond.
+ * <p>
+ * Ids not written since startup have version 0 and the startup time as last modification; that
+ * time also goes into each ETag, so tags from before a restart never match. Deleted ids keep their
+ * stamp, so an old tag of a deleted task does not match either.
+ * <p>
+ * Readers must take the stamp <em>before</em> reading the data it describes, and writers bump it
+ * only after the write is visible (after commit when a transaction is active). A tag can then be
+ * older than its body, which only costs a full response later, but never newer.
+ * <p>
+ * Conditional writes ({@code If-Match}) hold the striped lock of their id from the version check
+ * until the bump, so two of them cannot both pass the check for the same version.
+ */
+@Component
+public class TaskVersions {
+
+    /**
+     * {@code sharedSecond}: an earlier write of the same task (or of the dataset, for
+     * {@link #current()}) happened within the same second. Last-Modified has one-second resolution,
+     * so it cannot tell a copy from between the two writes from a current one.
+     */
+    public record Stamp(long version, long lastModified, boolean sharedSecond) {
+    }
+
+    /**
+     * Called for every change in version order, while versions are being assigned, so it must not
+     * block. {@code task} is a copy of the saved task, or null if the task was deleted.
+     */
+    public interface Listener {
+        void changed(long version, Long id, Task task);
+    }
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final long startedAt = System.currentTimeMillis();
+    private final String epoch = Long.toString(startedAt, 36);
+    private final ConcurrentHashMap<Long, Stamp> stamps = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // assigns versions in order and hands them to the listeners in that order
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long lastVersion = startedAt * 1000;
+    private volatile Stamp current = new Stamp(lastVersion, startedAt, false);
+
+    public TaskVersions() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Version of the whole dataset; changes on every write.
+     */
+    public Stamp current() {
+        return current;
+    }
+
+    public Stamp of(Long id) {
+        Stamp stamp = stamps.get(id);
+        return stamp != null ? stamp : new Stamp(0, startedAt, false);
+    }
+
+    public String etag(Stamp stamp) {
+        return "\"" + epoch + "-" + stamp.version() + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header value matches the current version of the task. Only
+     * strong tags match; {@code *} matches any version (the caller checks that the task exists).
+     */
+    public boolean matches(Long id, String ifMatch) {
+        String tag = etag(of(id));
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Records a write that saved {@code saved} and deleted {@code deleted}, after the current
+     * transaction commits if there is one.
+     */
+    public void touch(List<Task> saved, Collection<Long> deleted) {
+        touch(saved, deleted, () -> {});
+    }
+
+    /**
+     * Same as {@link #touch(List, Collection)}, running {@code beforePublish} (e.g. cache updates)
+     * first in the same after-commit step. Caches updated inside the transaction could be refilled
+     * with the old committed row by a concurrent read before the commit, or keep rolled-back data.
+     */
+    public void touch(List<Task> saved, Collection<Long> deleted, Runnable beforePublish) {
+        if (saved.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        List<Task> copies = new ArrayList<>(saved.size());
+        for (Task task : saved) {
+            copies.add(new Task(task.getId(), task.getTitle(), task.getDescription(), task.getStatus()));
+        }
+        List<Long> deletedIds = List.copyOf(deleted);
+        afterCommit(() -> {
+            beforePublish.run();
+            publish(copies, deletedIds);
+        });
+    }
+
+    private void publish(List<Task> saved, List<Long> deleted) {
+        publishLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            for (Long id : deleted) {
+                stamp(id, null, now);
+            }
+            for (Task task : saved) {
+                stamp(task.getId(), task, now);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void stamp(Long id, Task task, long now) {
+        long version = ++lastVersion;
+        stamps.put(id, new Stamp(version, now, sameSecond(of(id).lastModified(), now)));
+        current = new Stamp(version, now, sameSecond(current.lastModified(), now));
+        for (Listener listener : listeners) {
+            listener.changed(version, id, task);
+        }
+    }
+
+    private static boolean sameSecond(long a, long b) {
+        return a / 1000 == b / 1000;
+    }
+
+    /**
+     * Locks the stripes of {@code ids} in a fixed order. Pass the result to {@link #unlock}, which
+     * releases them once the current transaction has completed (immediately without one), so no
+     * other conditional write can check a version that is about to change.
+     */
+    public List<ReentrantLock> lock(Collection<Long> ids) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long id : ids) {
+            stripes.add(Math.floorMod(id.hashCode(), LOCK_STRIPES));
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        TaskLockWaitEvent event = new TaskLockWaitEvent();
+        event.begin();
+        for (int stripe : stripes) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            held.add(lock);
+        }
+        event.acquired("task version stripes");
+        return held;
+    }
+
+    public void unlock(List<ReentrantLock> held) {
+        Runnable release = () -> {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
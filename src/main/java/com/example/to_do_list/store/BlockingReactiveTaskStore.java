@@ -0,0 +1,55 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * {@link ReactiveTaskStore} over a blocking {@link TaskStore}. Every store call runs on
+ * {@code scheduler}, which should be bounded (see {@link com.example.to_do_list.config.ReactiveConfig}),
+ * so file and database I/O never runs on the caller's thread.
+ */
+public class BlockingReactiveTaskStore implements ReactiveTaskStore {
+
+    private final TaskStore store;
+    private final Scheduler scheduler;
+    private final int pageSize;
+
+    public BlockingReactiveTaskStore(TaskStore store, Scheduler scheduler, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.store = store;
+        this.scheduler = scheduler;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public Flux<Task> findAll(Long afterId) {
+        // one keyset page per generate() call, and generate() is only called on demand;
+        // flatMapIterable with prefetch 1 keeps at most one page buffered ahead of the subscriber
+        return Flux.<List<Task>, Cursor>generate(() -> new Cursor(afterId), (cursor, sink) -> {
+                    List<Task> page = store.findPage(cursor.afterId, pageSize);
+                    if (!page.isEmpty()) {
+                        cursor.afterId = page.get(page.size() - 1).getId();
+                        sink.next(page);
+                    }
+                    if (page.size() < pageSize) {
+                        sink.complete();
+                    }
+                    return cursor;
+                })
+                .subscribeOn(scheduler)
+                .flatMapIterable(page -> page, 1);
+    }
+
+    private static final class Cursor {
+        private Long afterId;
+
+        private Cursor(Long afterId) {
+            this.afterId = afterId;
+        }
+    }
+}
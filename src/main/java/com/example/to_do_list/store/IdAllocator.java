@@ -0,0 +1,66 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out task ids from an atomic counter, so writers get ids without holding the store's
+ * write lock or looking at the dataset. Stores restore it from the highest persisted id on
+ * startup. Ids are never handed out twice, but ones whose write failed are not reused either.
+ */
+final class IdAllocator {
+
+    private final AtomicLong next = new AtomicLong(1);
+
+    /**
+     * Continues after {@code highestId} (0 for an empty store).
+     */
+    void restore(long highestId) {
+        next.set(highestId + 1);
+    }
+
+    long next() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids for a batch and returns the first.
+     */
+    long reserve(int count) {
+        return next.getAndAdd(count);
+    }
+
+    /**
+     * Records an id that was assigned elsewhere (an update of an unknown id, an import), so it is
+     * never handed out again.
+     */
+    void observe(long id) {
+        next.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Gives every task without an id a fresh one and records the ids the others already have.
+     * The explicit ids are recorded first, so the fresh ones come after all of them and cannot
+     * collide with an explicit id of the same batch that the store has not seen yet.
+     */
+    void assign(Iterable<Task> tasks) {
+        int missing = 0;
+        for (Task task : tasks) {
+            if (task.getId() == null) {
+                missing++;
+            } else {
+                observe(task.getId());
+            }
+        }
+        if (missing == 0) {
+            return;
+        }
+        long id = reserve(missing);
+        for (Task task : tasks) {
+            if (task.getId() == null) {
+                task.setId(id++);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.jfr.TaskStoreIoEvent;
+import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Task store that serves every read from memory.
+ * <p>
+ * Tasks live in a primary id-ordered map with a secondary index by status. Writes only touch
+ * memory and bump a write sequence; a background flusher persists the whole dataset to disk
+ * (temp file + atomic rename) at most once per flush interval, so a burst of writes costs a
+ * single file write. {@link Durability} controls how long a writer waits for its change to
+ * reach the disk. Each flush forces the new file and its directory entry to disk before it
+ * counts as done.
+ * <p>
+ * The file is shared with the {@code json} engine by default, so it is written in the same
+ * {@code todo.store.json.format}; a file in either format is read (and converted by the next flush).
+ * <p>
+ * Calls are timed per method; writers' lock waits and the flusher's file reads and writes are
+ * timed as phases (see {@link StoreMetrics}).
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.store.engine", havingValue = "memory")
+public class InMemoryTaskStore implements TaskStore {
+
+    public enum Durability {
+        /** Nothing is loaded from or written to disk. */
+        NONE,
+        /** Writes return immediately and are persisted by the next periodic flush. */
+        ASYNC,
+        /**
+         * Writes return once a flush that includes them has completed; concurrent writers share it.
+         * If that flush fails the write fails too, but it has been applied in memory: readers see it
+         * and the next successful flush persists it. The error means "not yet durable", not "not done".
+         */
+        SYNC
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskStore.class);
+
+    private final Path file;
+    private final Durability durability;
+    private final TaskFileFormat format;
+    private final ObjectMapper mapper;
+
+    private final ConcurrentSkipListMap<Long, Task> tasks = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> idsByStatus = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final IdAllocator ids = new IdAllocator();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong writeSeq = new AtomicLong();
+    private volatile long flushedSeq;
+    private final ScheduledExecutorService flusher;
+    private final StoreMetrics metrics;
+    // set under writeLock, so no write is applied after close() has taken its final snapshot
+    private volatile boolean closed;
+
+    public InMemoryTaskStore(String path, Durability durability, long flushIntervalMs) {
+        this(path, TaskFileFormat.JSON, durability, flushIntervalMs, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public InMemoryTaskStore(@Value("${todo.store.memory.path:tasks.json}") String path,
+                             @Value("${todo.store.json.format:JSON}") TaskFileFormat format,
+                             @Value("${todo.store.memory.durability:ASYNC}") Durability durability,
+                             @Value("${todo.store.memory.flush-interval-ms:1000}") long flushIntervalMs,
+                             MeterRegistry registry) {
+        this.file = Path.of(path);
+        this.durability = durability;
+        this.format = format;
+        this.mapper = format.newMapper();
+        this.metrics = new StoreMetrics(registry, "memory");
+        metrics.sizeGauge(this, store -> store.tasks.size());
+        if (durability != Durability.NONE) {
+            metrics.diskGauge(this, store -> new Path[]{store.file});
+        }
+        if (durability == Durability.NONE) {
+            this.flusher = null;
+            return;
+        }
+        load();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-store-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        TaskStoreIoEvent event = metrics.ioStarted();
+        long start = System.nanoTime();
+        try (StoreMetrics.TimedInputStream in = new StoreMetrics.TimedInputStream(Files.newInputStream(file))) {
+            // possibly written by the json engine in the other format
+            TaskFileFormat found = TaskFileFormat.detect(file);
+            ObjectMapper reader = found == format ? mapper : found.newMapper();
+            List<Task> list = reader.readValue(in, new TypeReference<List<Task>>(){});
+            metrics.readAndParse(start, in);
+            if (list != null) {
+                for (Task task : list) {
+                    put(task);
+                }
+            }
+            metrics.ioDone(event, TaskStoreIoEvent.READ, file, in.bytes(), tasks.size());
+            ids.restore(tasks.isEmpty() ? 0 : tasks.lastKey());
+            logger.info("Loaded {} tasks from {}", tasks.size(), file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Writes the current state if anything changed since the last flush.
+     */
+    public void flush() {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            long target;
+            List<Task> snapshot;
+            // under the write lock, so a batch is persisted either completely or not at all
+            metrics.lock(writeLock);
+            try {
+                target = writeSeq.get();
+                if (target == flushedSeq) {
+                    return;
+                }
+                snapshot = new ArrayList<>(tasks.values());
+            } finally {
+                writeLock.unlock();
+            }
+            TaskStoreIoEvent event = metrics.ioStarted();
+            long start = System.nanoTime();
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            byte[] bytes = format.writer(mapper).writeValueAsBytes(snapshot);
+            long syncing;
+            // forced before the rename, so the rename never exposes a file whose data is not on disk
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                long forcing = System.nanoTime();
+                out.force(true);
+                syncing = System.nanoTime() - forcing;
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long forcing = System.nanoTime();
+            syncDirectory();
+            syncing += System.nanoTime() - forcing;
+            metrics.record(StoreMetrics.WRITE, System.nanoTime() - start - syncing);
+            metrics.record(StoreMetrics.FSYNC, syncing);
+            metrics.ioDone(event, TaskStoreIoEvent.WRITE, file, bytes.length, snapshot.size());
+            flushedSeq = target;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + file, e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // some platforms (Windows) cannot open a directory; the rename is as durable as they make it
+            logger.debug("Could not fsync the directory of {}", file, e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // keep the schedule alive; the next run retries with the then-current state
+            logger.error("Background flush of {} failed", file, e);
+        }
+    }
+
+    private void afterWrite() {
+        long seq = writeSeq.incrementAndGet();
+        if (durability != Durability.SYNC) {
+            return;
+        }
+        try {
+            if (flushedSeq < seq) {
+                flusher.submit(this::flush).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + file + " to be flushed", e);
+        } catch (ExecutionException e) {
+            // see Durability.SYNC: the change stays applied and goes out with the next flush
+            throw new RuntimeException("Write was applied but could not be persisted to " + file, e.getCause());
+        }
+    }
+
+    // caller holds writeLock
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Task store " + file + " is closed");
+        }
+    }
+
+    /**
+     * Flushes once more and stops the flusher. Writes made after this fail with
+     * {@link IllegalStateException}.
+     */
+    @PreDestroy
+    public void close() {
+        metrics.lock(writeLock);
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flush();
+    }
+
+    // caller holds writeLock (or is the constructor)
+    private void put(Task task) {
+        Task stored = Tasks.copy(task);
+        Task previous = tasks.put(stored.getId(), stored);
+        if (previous != null && !Objects.equals(previous.getStatus(), stored.getStatus())) {
+            unindex(previous);
+        }
+        if (stored.getStatus() != null) {
+            idsByStatus.computeIfAbsent(stored.getStatus(), s -> new ConcurrentSkipListSet<>()).add(stored.getId());
+        }
+    }
+
+    private void unindex(Task task) {
+        if (task.getStatus() != null) {
+            Set<Long> ids = idsByStatus.get(task.getStatus());
+            if (ids != null) {
+                ids.remove(task.getId());
+            }
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return metrics.time("findAll", () -> {
+            List<Task> result = new ArrayList<>(tasks.size());
+            for (Task task : tasks.values()) {
+                result.add(Tasks.copy(task));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return metrics.time("findById", () -> Optional.ofNullable(tasks.get(id)).map(Tasks::copy));
+    }
+
+    /**
+     * Served from the status index; each hit is re-checked against the primary map because
+     * readers do not take the write lock and may observe an index entry mid-update.
+     */
+    @Override
+    public List<Task> findByStatus(String status) {
+        return metrics.time("findByStatus", () -> {
+            Set<Long> ids = idsByStatus.get(status);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            List<Task> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Task task = tasks.get(id);
+                if (task != null && status.equals(task.getStatus())) {
+                    result.add(Tasks.copy(task));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<Task> findPage(Long afterId, int limit) {
+        return metrics.time("findPage", () -> {
+            Map<Long, Task> tail = afterId == null ? tasks : tasks.tailMap(afterId, false);
+            List<Task> result = new ArrayList<>(Math.min(limit, tasks.size()));
+            for (Task task : tail.values()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(Tasks.copy(task));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Task save(Task task) {
+        return metrics.time("save", () -> {
+            if (task.getId() == null) {
+                task.setId(ids.next());
+            } else {
+                ids.observe(task.getId());
+            }
+            metrics.lock(writeLock);
+            try {
+                checkOpen();
+                put(task);
+            } finally {
+                writeLock.unlock();
+            }
+            afterWrite();
+            return task;
+        });
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        return metrics.time("findAllById", () -> {
+            List<Task> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Task task = tasks.get(id);
+                if (task != null) {
+                    result.add(Tasks.copy(task));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Applied under one write lock and covered by one flush. Readers are not isolated from a
+     * batch in progress and may see part of it until the lock is released.
+     */
+    @Override
+    public List<Task> applyBatch(List<Task> saves, Collection<Long> deletes) {
+        return metrics.time("applyBatch", () -> {
+            ids.assign(saves);
+            metrics.lock(writeLock);
+            try {
+                checkOpen();
+                for (Long id : deletes) {
+                    Task removed = tasks.remove(id);
+                    if (removed != null) {
+                        unindex(removed);
+                    }
+                }
+                for (Task task : saves) {
+                    put(task);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            afterWrite();
+            return saves;
+        });
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return metrics.time("existsById", () -> tasks.containsKey(id));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        metrics.time("deleteById", () -> {
+            metrics.lock(writeLock);
+            try {
+                checkOpen();
+                Task removed = tasks.remove(id);
+                if (removed == null) {
+                    return;
+                }
+                unindex(removed);
+            } finally {
+                writeLock.unlock();
+            }
+            afterWrite();
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        metrics.time("deleteAll", () -> {
+            metrics.lock(writeLock);
+            try {
+                checkOpen();
+                tasks.clear();
+                idsByStatus.clear();
+            } finally {
+                writeLock.unlock();
+            }
+            afterWrite();
+        });
+    }
+
+    @Override
+    public long count() {
+        return metrics.time("count", () -> (long) tasks.size());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Task store backed by the database through {@link TaskRepository}.
+ * <p>
+ * Queries run in read-only transactions and lean on the primary key and the status index.
+ * {@link #applyBatch} saves through the persistence context and flushes/clears it every
+ * {@code hibernate.jdbc.batch_size} tasks, so inserts and updates go out as JDBC batches and
+ * large batches do not pile up managed entities.
+ * <p>
+ * Calls are timed per method (see {@link StoreMetrics}); the phases inside them are the
+ * database's business. The size gauge runs a count query on every scrape.
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.store.engine", havingValue = "jpa")
+@Transactional(readOnly = true)
+public class JpaTaskStore implements TaskStore {
+
+    // allocationSize of task_seq on Task
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final TaskRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final StoreMetrics metrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // the registry is optional so that JPA test slices, which have none, can still create the store
+    public JpaTaskStore(TaskRepository repository, JdbcTemplate jdbcTemplate,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                        ObjectProvider<MeterRegistry> registry) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.metrics = new StoreMetrics(registry.getIfAvailable(SimpleMeterRegistry::new), "jpa");
+        metrics.sizeGauge(repository, TaskRepository::count);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return metrics.time("findAll", () -> repository.findAll(Sort.by("id")));
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return metrics.time("findById", () -> repository.findById(id));
+    }
+
+    @Override
+    public List<Task> findByStatus(String status) {
+        return metrics.time("findByStatus", () -> repository.findByStatusOrderById(status));
+    }
+
+    @Override
+    public List<Task> findPage(Long afterId, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return metrics.time("findPage", () -> afterId == null
+                ? repository.findAllByOrderById(page)
+                : repository.findByIdGreaterThanOrderById(afterId, page));
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        return metrics.time("findAllById", () -> repository.findAllById(ids));
+    }
+
+    @Override
+    @Transactional
+    public Task save(Task task) {
+        return metrics.time("save", () -> repository.save(task));
+    }
+
+    @Override
+    @Transactional
+    public List<Task> applyBatch(List<Task> saves, Collection<Long> deletes) {
+        return metrics.time("applyBatch", () -> writeBatch(saves, deletes));
+    }
+
+    private List<Task> writeBatch(List<Task> saves, Collection<Long> deletes) {
+        if (!deletes.isEmpty()) {
+            repository.deleteAllByIdInBatch(deletes);
+        }
+        List<Task> saved = new ArrayList<>(saves.size());
+        for (Task task : saves) {
+            Task stored = repository.save(task);
+            // keep the caller's object in step, as the file stores do
+            task.setId(stored.getId());
+            saved.add(stored);
+            if (saved.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Goes around Hibernate, which would assign new ids from the sequence: an update for every
+     * task, then an insert for the ones no row matched. The sequence is moved past the highest id
+     * afterwards, so that the first block the pooled optimizer takes from it starts above that id.
+     * <p>
+     * Refused once Hibernate has taken a block in this application: it would go on handing out
+     * ids from that block, below the restarted sequence, and reuse imported ids.
+     */
+    @Override
+    @Transactional
+    public void importTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        metrics.time("importTasks", () -> importRows(tasks));
+    }
+
+    private void importRows(List<Task> tasks) {
+        if (idsAllocated()) {
+            throw new IllegalStateException("Tasks can only be imported before any task id has been allocated");
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<Object[]> updates = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            updates.add(new Object[]{task.getTitle(), task.getDescription(), task.getStatus(), task.getId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE tasks SET title = ?, description = ?, status = ? WHERE id = ?", updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (updated[i] == 0) {
+                Task task = tasks.get(i);
+                inserts.add(new Object[]{task.getId(), task.getTitle(), task.getDescription(), task.getStatus()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, status) VALUES (?, ?, ?, ?)", inserts);
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE task_seq RESTART WITH " + (maxId + ID_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    private boolean idsAllocated() {
+        Generator generator = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(Task.class).getGenerator();
+        if (!(generator instanceof SequenceStyleGenerator sequence)) {
+            return false;
+        }
+        try {
+            return sequence.getOptimizer().getLastSourceValue() != null;
+        } catch (IllegalStateException e) {
+            // the pooled optimizer keeps no state until it has taken its first block
+            return false;
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return metrics.time("existsById", () -> repository.existsById(id));
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        metrics.time("deleteById", () -> repository.deleteById(id));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        metrics.time("deleteAll", () -> repository.deleteAllInBatch());
+    }
+
+    @Override
+    public long count() {
+        return metrics.time("count", () -> repository.count());
+    }
+}
@@ -1,99 +1,617 @@
 package com.example.to_do_list.store;
 
+import com.example.to_do_list.jfr.TaskStoreIoEvent;
 import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
 
+/**
+ * Task store backed by a single {@code tasks.json} file.
+ * <p>
+ * Writers take an exclusive {@link StampedLock}. Readers first read optimistically without
+ * blocking and only keep the result if no writer ran in the meantime; otherwise (or if the file
+ * was caught mid-write and failed to parse) they retry under the shared read lock. Reads therefore
+ * run in parallel with each other and only wait for a writer they actually overlapped with.
+ * <p>
+ * Reads stream the file through {@link TaskJsonScanner} rather than binding the whole list:
+ * lookups stop at the first match, {@link #count} binds nothing and filtered reads only build the
+ * tasks they return.
+ * <p>
+ * Every write goes to a temp file that is then renamed over the real one, so a crash leaves
+ * either the old or the new dataset, never a torn file. {@link FsyncPolicy} decides when the temp
+ * file and the directory entry are forced to disk.
+ * <p>
+ * The file is JSON or, with {@code todo.store.json.format=SMILE}, Jackson's binary Smile encoding
+ * (see {@link TaskFileFormat}). A file found in the other format on startup is converted.
+ * <p>
+ * New tasks get their ids from an {@link IdAllocator} before they are queued, so id assignment
+ * needs neither the lock nor a scan of the file.
+ * <p>
+ * {@link #save} and {@link #deleteById} are group-committed: callers queue their write and block
+ * until a single committer thread has applied it. The committer collects whatever arrives within
+ * the commit window (up to a maximum group size) and applies the whole group with one read and one
+ * write of the file, so concurrent writers share the cost of rewriting it.
+ * <p>
+ * Every call is timed, split into lock wait, file read, parsing, writing and fsync (see
+ * {@link StoreMetrics}). The dataset size is remembered from the last write, so the size gauge
+ * never scans the file.
+ */
 @Repository
+@ConditionalOnProperty(name = "todo.store.engine", havingValue = "json", matchIfMissing = true)
 public class JsonTaskStore implements TaskStore {
 
-    private final Path file = Path.of("tasks.json");
-    private final ObjectMapper mapper = new ObjectMapper();
+    public enum FsyncPolicy {
+        /** Every write is on disk, file and rename, before it is acknowledged. */
+        ALWAYS,
+        /**
+         * Every new file is forced before its rename, but the directory entry at most once per interval:
+         * a crash loses up to one interval of writes and never leaves a renamed file without its data.
+         */
+        INTERVAL,
+        /** Left to the OS; still atomic against process crashes, not against power loss. */
+        NEVER
+    }
+
+    // places where fault-injection tests stop a write as if the process died there
+    enum WritePoint {
+        TEMP_WRITTEN, TEMP_SYNCED, RENAMED
+    }
+
+    interface FaultInjector {
+        void at(WritePoint point, Path tmp) throws IOException;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonTaskStore.class);
 
-    private synchronized List<Task> readAll() {
+    private final Path file;
+    private final Path tmp;
+    private final FsyncPolicy fsync;
+    private final ScheduledExecutorService syncer;
+    private volatile boolean unsynced;
+    private volatile FaultInjector faults = (point, path) -> {
+    };
+    private final TaskFileFormat format;
+    private final ObjectMapper mapper;
+    private final IdAllocator ids = new IdAllocator();
+    private final StampedLock lock = new StampedLock();
+    private final StoreMetrics metrics;
+    private volatile long size;
+
+    // a queued save (task != null) or delete (task == null)
+    private record PendingWrite(Task task, Long deleteId, CompletableFuture<Task> done) {
+    }
+
+    // queued by close() behind the last accepted write; the committer stops when it reaches it
+    private static final PendingWrite STOP = new PendingWrite(null, null, null);
+
+    private final BlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+    // orders submit() against close(): a write is either queued ahead of STOP or refused
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final long commitWindowNanos;
+    private final int maxGroupSize;
+    private final DistributionSummary groupSizes;
+    private final Thread committer;
+    private volatile boolean closed;
+
+    public JsonTaskStore(String path) {
+        this(path, TaskFileFormat.JSON, FsyncPolicy.ALWAYS, Duration.ofSeconds(1), Duration.ofMillis(1), 256,
+                new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public JsonTaskStore(@Value("${todo.store.json.path:tasks.json}") String path,
+                         @Value("${todo.store.json.format:JSON}") TaskFileFormat format,
+                         @Value("${todo.store.json.fsync:ALWAYS}") FsyncPolicy fsync,
+                         @Value("${todo.store.json.fsync-interval:1s}") Duration fsyncInterval,
+                         @Value("${todo.store.json.group-commit.window:1ms}") Duration commitWindow,
+                         @Value("${todo.store.json.group-commit.max-size:256}") int maxGroupSize,
+                         MeterRegistry registry) {
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException("Group commit max size must be at least 1");
+        }
+        this.file = Path.of(path);
+        this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.fsync = fsync;
+        this.format = format;
+        this.mapper = format.newMapper();
+        this.commitWindowNanos = commitWindow.toNanos();
+        this.maxGroupSize = maxGroupSize;
+        this.groupSizes = DistributionSummary.builder("tasks.store.commit.size")
+                .description("Writes applied by one group commit of tasks.json")
+                .tag("engine", "json")
+                .register(registry);
+        this.metrics = new StoreMetrics(registry, "json");
         try {
+            if (Files.deleteIfExists(tmp)) {
+                // a write died before its rename; the real file still holds the last complete state
+                logger.warn("Discarded unfinished write {}", tmp);
+            }
             if (!Files.exists(file)) {
-                Files.createFile(file);
-                mapper.writeValue(file.toFile(), new ArrayList<Task>());
+                writeAll(new ArrayList<>());
+            } else if (TaskFileFormat.detect(file) != format) {
+                int count = TaskFileConverter.convert(file, tmp, format);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Converted {} ({} tasks) to {}", file, count, format);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create " + file, e);
+        }
+        ids.restore(read(TaskJsonScanner::maxId));
+        this.size = read(TaskJsonScanner::count);
+        metrics.sizeGauge(this, store -> store.size);
+        metrics.diskGauge(this, store -> new Path[]{store.file});
+        if (fsync == FsyncPolicy.INTERVAL) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "task-store-syncer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = fsyncInterval.toMillis();
+            syncer.scheduleWithFixedDelay(this::syncQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+        this.committer = new Thread(this::commitLoop, "task-store-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Stops the committer once every write queued so far has been committed. Writes submitted
+     * after this fail with {@link IllegalStateException}.
+     */
+    @PreDestroy
+    public void close() {
+        queueLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.add(STOP);
+        } finally {
+            queueLock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (syncer != null) {
+            syncer.shutdown();
+            syncQuietly();
+        }
+    }
+
+    void setFaultInjector(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    private void commitLoop() {
+        while (true) {
+            PendingWrite first;
+            try {
+                first = pending.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == STOP) {
+                return;
+            }
+            commit(collectGroup(first));
+        }
+    }
+
+    private List<PendingWrite> collectGroup(PendingWrite first) {
+        List<PendingWrite> group = new ArrayList<>();
+        group.add(first);
+        long deadline = System.nanoTime() + commitWindowNanos;
+        while (group.size() < maxGroupSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingWrite next;
+            try {
+                next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : pending.poll();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            if (next == STOP) {
+                // nothing can follow it; put it back for the loop to see after this group
+                pending.add(STOP);
+                break;
+            }
+            group.add(next);
+        }
+        return group;
+    }
+
+    private void commit(List<PendingWrite> group) {
+        long stamp = metrics.writeLock(lock);
+        try {
+            List<Task> list = readAll();
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                Long id = list.get(i).getId();
+                if (id != null) {
+                    positions.put(id, i);
+                }
+            }
+            // applied in arrival order; deleted slots are nulled and dropped at the end
+            for (PendingWrite write : group) {
+                Task task = write.task();
+                if (task == null) {
+                    Integer position = positions.remove(write.deleteId());
+                    if (position != null) {
+                        list.set(position, null);
+                    }
+                    continue;
+                }
+                Integer position = positions.get(task.getId());
+                if (position != null) {
+                    list.set(position, task);
+                } else {
+                    positions.put(task.getId(), list.size());
+                    list.add(task);
+                }
+            }
+            list.removeIf(Objects::isNull);
+            writeAll(list);
+            size = list.size();
+        } catch (Throwable e) {
+            // an Error too (e.g. OutOfMemoryError while serializing): the committer must survive it,
+            // or every queued and later write would wait forever on its future
+            logger.error("Group commit of {} writes to {} failed", group.size(), file, e);
+            for (PendingWrite write : group) {
+                write.done().completeExceptionally(e);
+            }
+            return;
+        } finally {
+            lock.unlockWrite(stamp);
+            groupSizes.record(group.size());
+        }
+        for (PendingWrite write : group) {
+            write.done().complete(write.task());
+        }
+    }
+
+    private Task submit(PendingWrite write) {
+        queueLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task store " + file + " is closed");
+            }
+            pending.add(write);
+        } finally {
+            queueLock.unlock();
+        }
+        try {
+            return write.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for write to " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to write " + file, e.getCause());
+        }
+    }
+
+    private List<Task> readAll() {
+        TaskStoreIoEvent event = metrics.ioStarted();
+        long start = System.nanoTime();
+        try (StoreMetrics.TimedInputStream in = new StoreMetrics.TimedInputStream(Files.newInputStream(file))) {
+            List<Task> list = mapper.readValue(in, new TypeReference<List<Task>>(){});
+            metrics.readAndParse(start, in);
+            if (list == null) {
+                list = new ArrayList<>();
             }
-            List<Task> list = mapper.readValue(file.toFile(), new TypeReference<List<Task>>(){});
-            return list != null ? list : new ArrayList<>();
+            metrics.ioDone(event, TaskStoreIoEvent.READ, file, in.bytes(), list.size());
+            return list;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + file, e);
+        }
+    }
+
+    // temp file, fsync, atomic rename, fsync of the directory (the fsyncs as the policy says)
+    private void writeAll(List<Task> tasks) {
+        boolean syncFile = fsync != FsyncPolicy.NEVER;
+        boolean syncNow = fsync == FsyncPolicy.ALWAYS;
+        TaskStoreIoEvent event = metrics.ioStarted();
+        long start = System.nanoTime();
+        long syncing = 0;
+        long bytes;
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                format.writer(mapper).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, tasks);
+                out.flush();
+                bytes = channel.size();
+                faults.at(WritePoint.TEMP_WRITTEN, tmp);
+                if (syncFile) {
+                    long forcing = System.nanoTime();
+                    channel.force(true);
+                    syncing += System.nanoTime() - forcing;
+                }
+            }
+            faults.at(WritePoint.TEMP_SYNCED, tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            faults.at(WritePoint.RENAMED, tmp);
+            if (syncNow) {
+                long forcing = System.nanoTime();
+                syncDirectory();
+                syncing += System.nanoTime() - forcing;
+            } else {
+                unsynced = true;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + file, e);
+        }
+        metrics.record(StoreMetrics.WRITE, System.nanoTime() - start - syncing);
+        if (syncFile) {
+            metrics.record(StoreMetrics.FSYNC, syncing);
+        }
+        metrics.ioDone(event, TaskStoreIoEvent.WRITE, file, bytes, tasks.size());
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to read tasks.json", e);
+            // some platforms (Windows) cannot open a directory; the rename is as durable as they make it
+            logger.debug("Could not fsync the directory of {}", file, e);
         }
     }
 
-    private synchronized void writeAll(List<Task> tasks) {
+    private void syncQuietly() {
+        if (!unsynced) {
+            return;
+        }
+        unsynced = false;
+        long start = System.nanoTime();
         try {
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), tasks);
+            // the file itself was forced before its rename
+            syncDirectory();
+            metrics.phase(StoreMetrics.FSYNC, start);
+        } catch (IOException e) {
+            unsynced = true;
+            // keep the schedule alive; the next run retries
+            logger.error("Background fsync of {} failed", file, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Scan<T> {
+        T apply(JsonParser parser) throws IOException;
+    }
+
+    private <T> T scan(Scan<T> scan) {
+        TaskStoreIoEvent event = metrics.ioStarted();
+        long start = System.nanoTime();
+        try (StoreMetrics.TimedInputStream in = new StoreMetrics.TimedInputStream(Files.newInputStream(file));
+             JsonParser parser = mapper.getFactory().createParser(in)) {
+            T result = scan.apply(parser);
+            metrics.readAndParse(start, in);
+            metrics.ioDone(event, TaskStoreIoEvent.READ, file, in.bytes(), decoded(result));
+            return result;
         } catch (IOException e) {
-            throw new RuntimeException("Failed to write tasks.json", e);
+            throw new RuntimeException("Failed to read " + file, e);
+        }
+    }
+
+    // tasks a scan turned into objects: the ones it returns (count and maxId decode none)
+    private static int decoded(Object result) {
+        if (result instanceof Collection<?> tasks) {
+            return tasks.size();
+        }
+        return result instanceof Optional<?> task && task.isPresent() ? 1 : 0;
+    }
+
+    private <T> T read(Scan<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = scan(query);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+                // torn read of a file a writer was replacing; retry below
+            }
+        }
+        stamp = metrics.readLock(lock);
+        try {
+            return scan(query);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private List<Task> collect(Predicate<Long> ids, Predicate<String> statuses) {
+        return read(parser -> {
+            List<Task> result = new ArrayList<>();
+            TaskJsonScanner.scan(parser, ids, statuses, result::add);
+            return result;
+        });
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return metrics.time("findAll", () -> collect(null, null));
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return metrics.time("findById", () -> lookup(id));
+    }
+
+    // untimed, so that callers are not counted as a findById as well
+    private Optional<Task> lookup(Long id) {
+        if (id == null) {
+            return Optional.empty();
         }
+        return read(parser -> {
+            Task[] found = new Task[1];
+            TaskJsonScanner.scan(parser, id::equals, null, task -> {
+                found[0] = task;
+                return false;
+            });
+            return Optional.ofNullable(found[0]);
+        });
     }
 
     @Override
-    public synchronized List<Task> findAll() {
-        return readAll();
+    public List<Task> findByStatus(String status) {
+        return metrics.time("findByStatus", () -> collect(null, status::equals));
     }
 
     @Override
-    public synchronized Optional<Task> findById(Long id) {
-        return readAll().stream().filter(t -> t.getId() != null && t.getId().equals(id)).findFirst();
+    public List<Task> findPage(Long afterId, int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        return metrics.time("findPage", () -> read(parser -> {
+            // the file is not kept in id order: keep the smallest ids seen so far
+            TreeMap<Long, Task> page = new TreeMap<>();
+            TaskJsonScanner.scan(parser,
+                    id -> (afterId == null || id > afterId) && (page.size() < limit || id < page.lastKey()),
+                    null,
+                    task -> {
+                        page.put(task.getId(), task);
+                        if (page.size() > limit) {
+                            page.pollLastEntry();
+                        }
+                        return true;
+                    });
+            return new ArrayList<>(page.values());
+        }));
     }
 
     @Override
-    public synchronized Task save(Task task) {
-        List<Task> list = readAll();
+    public Task save(Task task) {
         if (task.getId() == null) {
-            long nextId = list.stream().map(Task::getId).filter(id -> id != null).max(Comparator.naturalOrder()).orElse(0L) + 1;
-            task.setId(nextId);
-            list.add(task);
+            task.setId(ids.next());
         } else {
-            boolean updated = false;
+            ids.observe(task.getId());
+        }
+        return metrics.time("save", () -> submit(new PendingWrite(task, null, new CompletableFuture<>())));
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        Set<Long> wanted = new HashSet<>(ids);
+        return metrics.time("findAllById", () -> collect(wanted::contains, null));
+    }
+
+    @Override
+    public List<Task> applyBatch(List<Task> saves, Collection<Long> deletes) {
+        ids.assign(saves);
+        return metrics.time("applyBatch", () -> writeBatch(saves, deletes));
+    }
+
+    private List<Task> writeBatch(List<Task> saves, Collection<Long> deletes) {
+        long stamp = metrics.writeLock(lock);
+        try {
+            List<Task> list = readAll();
+            if (!deletes.isEmpty()) {
+                Set<Long> deleteIds = new HashSet<>(deletes);
+                list.removeIf(t -> deleteIds.contains(t.getId()));
+            }
+            Map<Long, Integer> positions = new HashMap<>();
             for (int i = 0; i < list.size(); i++) {
-                Task t = list.get(i);
-                if (t.getId() != null && t.getId().equals(task.getId())) {
-                    list.set(i, task);
-                    updated = true;
-                    break;
-                }
+                positions.put(list.get(i).getId(), i);
             }
-            if (!updated) {
-                list.add(task);
+            for (Task task : saves) {
+                Integer position = positions.get(task.getId());
+                if (position != null) {
+                    list.set(position, task);
+                } else {
+                    positions.put(task.getId(), list.size());
+                    list.add(task);
+                }
             }
+            writeAll(list);
+            size = list.size();
+            return saves;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        writeAll(list);
-        return task;
     }
 
     @Override
-    public synchronized boolean existsById(Long id) {
-        return findById(id).isPresent();
+    public boolean existsById(Long id) {
+        return metrics.time("existsById", () -> lookup(id).isPresent());
     }
 
     @Override
-    public synchronized void deleteById(Long id) {
-        List<Task> list = readAll();
-        list.removeIf(t -> t.getId() != null && t.getId().equals(id));
-        writeAll(list);
+    public void deleteById(Long id) {
+        metrics.time("deleteById", () -> submit(new PendingWrite(null, id, new CompletableFuture<>())));
     }
 
     @Override
-    public synchronized void deleteAll() {
-        writeAll(new ArrayList<>());
+    public void deleteAll() {
+        metrics.time("deleteAll", () -> {
+            long stamp = metrics.writeLock(lock);
+            try {
+                writeAll(new ArrayList<>());
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
     }
 
     @Override
-    public synchronized long count() {
-        return readAll().size();
+    public long count() {
+        return metrics.time("count", () -> read(TaskJsonScanner::count));
     }
 }
@@ -0,0 +1,466 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.jfr.TaskStoreIoEvent;
+import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Task store backed by an append-only operation log.
+ * <p>
+ * Every write appends one checksummed record ({@code length | crc32 | op | payload}) to the log
+ * and optionally fsyncs it, instead of rewriting the whole dataset. The current state is kept in
+ * memory and rebuilt on startup by loading the last snapshot and replaying the log on top of it.
+ * A torn or corrupted tail (e.g. after a crash mid-append) is detected by its checksum and cut off.
+ * Once the log grows past {@code compact-threshold} records it is folded into a new snapshot.
+ * <p>
+ * Calls are timed per method, and their lock waits, appends and fsyncs as phases (see
+ * {@link StoreMetrics}).
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.store.engine", havingValue = "log")
+public class LogTaskStore implements TaskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTaskStore.class);
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+    private static final byte OP_BATCH = 4;
+
+    // payload length (4) + crc32 (4) + op (1)
+    private static final int HEADER_SIZE = 9;
+
+    // places where fault-injection tests stop a compaction as if the process died there
+    enum CompactPoint {
+        SNAPSHOT_SYNCED, RENAMED, DIRECTORY_SYNCED, LOG_TRUNCATED
+    }
+
+    interface FaultInjector {
+        void at(CompactPoint point) throws IOException;
+    }
+
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final boolean fsync;
+    private final int compactThreshold;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final ConcurrentSkipListMap<Long, Task> tasks = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private int opsSinceSnapshot;
+    // log records at which the next compaction is due; pushed back by a failed one
+    private int compactAt;
+    private long nextId = 1;
+    private final StoreMetrics metrics;
+    private volatile FaultInjector faults = point -> {
+    };
+
+    public LogTaskStore(String logPath, String snapshotPath, boolean fsync, int compactThreshold) {
+        this(logPath, snapshotPath, fsync, compactThreshold, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public LogTaskStore(@Value("${todo.store.log.path:tasks.log}") String logPath,
+                        @Value("${todo.store.log.snapshot-path:tasks.snapshot.json}") String snapshotPath,
+                        @Value("${todo.store.log.fsync:true}") boolean fsync,
+                        @Value("${todo.store.log.compact-threshold:10000}") int compactThreshold,
+                        MeterRegistry registry) {
+        this.logFile = Path.of(logPath);
+        this.snapshotFile = Path.of(snapshotPath);
+        this.fsync = fsync;
+        this.compactThreshold = compactThreshold;
+        this.compactAt = compactThreshold;
+        this.metrics = new StoreMetrics(registry, "log");
+        recover();
+        metrics.sizeGauge(this, store -> store.tasks.size());
+        metrics.diskGauge(this, store -> new Path[]{store.logFile, store.snapshotFile});
+    }
+
+    private void recover() {
+        try {
+            if (Files.exists(snapshotFile)) {
+                List<Task> snapshot = mapper.readValue(snapshotFile.toFile(), new TypeReference<List<Task>>(){});
+                for (Task task : snapshot) {
+                    tasks.put(task.getId(), task);
+                }
+            }
+            channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validEnd = replay();
+            if (validEnd < channel.size()) {
+                logger.warn("Discarding torn tail of {}: {} of {} bytes are valid", logFile, validEnd, channel.size());
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            channel.position(validEnd);
+            nextId = tasks.isEmpty() ? 1 : tasks.lastKey() + 1;
+            logger.info("Recovered {} tasks from {} and {} ({} log records)", tasks.size(), snapshotFile, logFile, opsSinceSnapshot);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to recover " + logFile, e);
+        }
+    }
+
+    /**
+     * Applies every intact record and returns the offset just past the last one.
+     */
+    private long replay() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            byte op = header.get();
+            if (length < 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_SIZE);
+            if (checksum(op, payload.array()) != crc) {
+                break;
+            }
+            apply(op, payload.array());
+            position += HEADER_SIZE + length;
+            opsSinceSnapshot++;
+        }
+        return position;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + logFile);
+            }
+        }
+    }
+
+    private void apply(byte op, byte[] payload) throws IOException {
+        switch (op) {
+            case OP_PUT -> {
+                Task task = mapper.readValue(payload, Task.class);
+                tasks.put(task.getId(), task);
+            }
+            case OP_DELETE -> tasks.remove(ByteBuffer.wrap(payload).getLong());
+            case OP_CLEAR -> tasks.clear();
+            case OP_BATCH -> applyBatchRecord(mapper.readValue(payload, BatchRecord.class));
+            default -> throw new IOException("Unknown record type " + op + " in " + logFile);
+        }
+    }
+
+    // one record per batch, so a crash leaves either all of it or none of it in the log
+    private record BatchRecord(List<Task> saves, List<Long> deletes) {
+    }
+
+    private void applyBatchRecord(BatchRecord batch) {
+        for (Long id : batch.deletes()) {
+            tasks.remove(id);
+        }
+        for (Task task : batch.saves()) {
+            tasks.put(task.getId(), task);
+        }
+    }
+
+    private static int checksum(byte op, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(op);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Appends one record covering {@code tasks} tasks. On failure the log is cut back to where the
+     * record started, so a half-written record never ends up in front of later ones.
+     */
+    private void append(byte op, byte[] payload, int tasks) {
+        long start = -1;
+        TaskStoreIoEvent event = metrics.ioStarted();
+        try {
+            long writing = System.nanoTime();
+            start = channel.position();
+            ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+            record.putInt(payload.length).putInt(checksum(op, payload)).put(op).put(payload).flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            metrics.phase(StoreMetrics.WRITE, writing);
+            if (fsync) {
+                long forcing = System.nanoTime();
+                channel.force(false);
+                metrics.phase(StoreMetrics.FSYNC, forcing);
+            }
+            metrics.ioDone(event, TaskStoreIoEvent.WRITE, logFile, record.limit(), tasks);
+            opsSinceSnapshot++;
+        } catch (IOException e) {
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new RuntimeException("Failed to append to " + logFile, e);
+        }
+    }
+
+    /**
+     * Runs after the caller's record is durable, so a failed compaction must not fail the write (a
+     * retry would apply it twice): it is logged and tried again once another threshold's worth of
+     * records has been appended. The log still holds everything, so nothing is lost meanwhile.
+     */
+    private void maybeCompact() {
+        if (opsSinceSnapshot < compactAt) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            compactAt = opsSinceSnapshot + compactThreshold;
+            logger.error("Compaction of {} failed, retrying after {} more records", logFile, compactThreshold, e);
+        }
+    }
+
+    /**
+     * Writes the current state to a new snapshot and empties the log. The snapshot is written to a
+     * temp file and renamed into place, so a crash leaves either the old or the new snapshot; if it
+     * happens before the log is truncated, replaying the (idempotent) records again is harmless.
+     * The directory is fsynced between the rename and the truncation: otherwise a power loss could
+     * keep the empty log but lose the rename, and with it every record since the last compaction.
+     */
+    public void compact() {
+        metrics.lock(writeLock);
+        try {
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            byte[] bytes = mapper.writeValueAsBytes(new ArrayList<>(tasks.values()));
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            faults.at(CompactPoint.SNAPSHOT_SYNCED);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            faults.at(CompactPoint.RENAMED);
+            syncDirectory();
+            faults.at(CompactPoint.DIRECTORY_SYNCED);
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            faults.at(CompactPoint.LOG_TRUNCATED);
+            logger.debug("Compacted {} log records into {}", opsSinceSnapshot, snapshotFile);
+            opsSinceSnapshot = 0;
+            compactAt = compactThreshold;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact " + logFile, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel directory = FileChannel.open(snapshotFile.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // some platforms (Windows) cannot open a directory; the rename is as durable as they make it
+            logger.debug("Could not fsync the directory of {}", snapshotFile, e);
+        }
+    }
+
+    void setFaultInjector(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        metrics.lock(writeLock);
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return metrics.time("findAll", () -> {
+            List<Task> result = new ArrayList<>(tasks.size());
+            for (Task task : tasks.values()) {
+                result.add(Tasks.copy(task));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return metrics.time("findById", () -> Optional.ofNullable(tasks.get(id)).map(Tasks::copy));
+    }
+
+    @Override
+    public List<Task> findByStatus(String status) {
+        return metrics.time("findByStatus", () -> {
+            List<Task> result = new ArrayList<>();
+            for (Task task : tasks.values()) {
+                if (status.equals(task.getStatus())) {
+                    result.add(Tasks.copy(task));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<Task> findPage(Long afterId, int limit) {
+        return metrics.time("findPage", () -> {
+            Map<Long, Task> tail = afterId == null ? tasks : tasks.tailMap(afterId, false);
+            List<Task> result = new ArrayList<>(Math.min(limit, tasks.size()));
+            for (Task task : tail.values()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(Tasks.copy(task));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Task save(Task task) {
+        return metrics.time("save", () -> {
+            metrics.lock(writeLock);
+            try {
+                if (task.getId() == null) {
+                    task.setId(nextId++);
+                } else if (task.getId() >= nextId) {
+                    nextId = task.getId() + 1;
+                }
+                Task stored = Tasks.copy(task);
+                append(OP_PUT, mapper.writeValueAsBytes(stored), 1);
+                tasks.put(stored.getId(), stored);
+                maybeCompact();
+                return task;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to serialize task " + task.getId(), e);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        return metrics.time("findAllById", () -> {
+            List<Task> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Task task = tasks.get(id);
+                if (task != null) {
+                    result.add(Tasks.copy(task));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<Task> applyBatch(List<Task> saves, Collection<Long> deletes) {
+        return metrics.time("applyBatch", () -> {
+            metrics.lock(writeLock);
+            try {
+                List<Task> stored = new ArrayList<>(saves.size());
+                for (Task task : saves) {
+                    if (task.getId() == null) {
+                        task.setId(nextId++);
+                    } else if (task.getId() >= nextId) {
+                        nextId = task.getId() + 1;
+                    }
+                    stored.add(Tasks.copy(task));
+                }
+                BatchRecord batch = new BatchRecord(stored, new ArrayList<>(deletes));
+                append(OP_BATCH, mapper.writeValueAsBytes(batch), stored.size() + deletes.size());
+                applyBatchRecord(batch);
+                maybeCompact();
+                return saves;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to serialize batch of " + saves.size() + " tasks", e);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return metrics.time("existsById", () -> tasks.containsKey(id));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        metrics.time("deleteById", () -> {
+            metrics.lock(writeLock);
+            try {
+                if (!tasks.containsKey(id)) {
+                    return;
+                }
+                append(OP_DELETE, ByteBuffer.allocate(Long.BYTES).putLong(id).array(), 1);
+                tasks.remove(id);
+                maybeCompact();
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        metrics.time("deleteAll", () -> {
+            metrics.lock(writeLock);
+            try {
+                append(OP_CLEAR, new byte[0], 0);
+                tasks.clear();
+                maybeCompact();
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public long count() {
+        return metrics.time("count", () -> (long) tasks.size());
+    }
+}
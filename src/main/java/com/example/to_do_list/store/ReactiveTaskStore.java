@@ -0,0 +1,19 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking view of a {@link TaskStore} for reads that can be too large to hold in memory.
+ * Single-task reads and all writes go through {@link com.example.to_do_list.service.ReactiveTaskService}
+ * instead, so they use and maintain the task caches.
+ */
+public interface ReactiveTaskStore {
+
+    /**
+     * All tasks with an id greater than {@code afterId} (or from the start when it is null), in
+     * ascending id order. Tasks are read page by page as the subscriber requests them, so a slow
+     * subscriber holds back the reads instead of the whole list being loaded up front.
+     */
+    Flux<Task> findAll(Long afterId);
+}
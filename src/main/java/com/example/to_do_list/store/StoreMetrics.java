@@ -0,0 +1,261 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.jfr.TaskLockWaitEvent;
+import com.example.to_do_list.jfr.TaskStoreIoEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters shared by the store engines, all tagged with the engine name:
+ * <ul>
+ *     <li>{@code tasks.store.operation} (tag {@code method}): wall time of each {@link TaskStore} call;</li>
+ *     <li>{@code tasks.store.phase} (tag {@code phase}): where that time went, see the phase constants;</li>
+ *     <li>{@code tasks.store.size} and {@code tasks.store.disk.bytes}: tasks held and bytes on disk.</li>
+ * </ul>
+ * Histogram buckets and SLOs for the timers come from the {@code management.metrics.distribution.*}
+ * properties, so they can be changed without touching the stores.
+ * <p>
+ * Lock waits and file reads and writes are also emitted as Flight Recorder events
+ * ({@link TaskLockWaitEvent}, {@link TaskStoreIoEvent}) for per-call evidence.
+ */
+final class StoreMetrics {
+
+    /** Waiting to acquire the store's lock. */
+    static final String LOCK_WAIT = "lock_wait";
+    /** Blocked in reads of the file. */
+    static final String READ = "read";
+    /** Turning the bytes read into tasks (JSON/Smile parsing and scanning). */
+    static final String PARSE = "parse";
+    /** Serializing and writing tasks, including the rename of a temp file. */
+    static final String WRITE = "write";
+    /** Forcing written data or a directory entry to disk. */
+    static final String FSYNC = "fsync";
+
+    private final MeterRegistry registry;
+    private final String engine;
+    private final Map<String, Timer> operations = new ConcurrentHashMap<>();
+    private final Map<String, Timer> phases = new ConcurrentHashMap<>();
+    private final String writeLockName;
+    private final String readLockName;
+
+    StoreMetrics(MeterRegistry registry, String engine) {
+        this.registry = registry;
+        this.engine = engine;
+        this.writeLockName = engine + " store write lock";
+        this.readLockName = engine + " store read lock";
+    }
+
+    /**
+     * {@code size} is polled on every scrape. Like every gauge it only holds the store weakly, so
+     * the functions should reach the store through their argument rather than capture it.
+     */
+    <S> void sizeGauge(S store, ToDoubleFunction<S> size) {
+        Gauge.builder("tasks.store.size", store, size)
+                .description("Tasks held by the store")
+                .tag("engine", engine)
+                .register(registry);
+    }
+
+    /**
+     * {@code files} are the files whose sizes add up to the store's footprint; missing ones count as 0.
+     */
+    <S> void diskGauge(S store, Function<S, Path[]> files) {
+        Gauge.builder("tasks.store.disk.bytes", store, s -> diskBytes(files.apply(s)))
+                .description("Bytes the store's files take on disk")
+                .tag("engine", engine)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static double diskBytes(Path[] files) {
+        long total = 0;
+        for (Path file : files) {
+            try {
+                total += Files.size(file);
+            } catch (IOException e) {
+                // not created yet, or replaced between the listing and the stat
+            }
+        }
+        return total;
+    }
+
+    <T> T time(String method, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            operation(method).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void time(String method, Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } finally {
+            operation(method).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the time since {@code start} (a {@link System#nanoTime} reading) against the phase.
+     */
+    void phase(String phase, long start) {
+        record(phase, System.nanoTime() - start);
+    }
+
+    void record(String phase, long nanos) {
+        phaseTimer(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Splits the time since {@code start} of a read through {@code in} into {@link #READ} (time
+     * blocked in the stream) and {@link #PARSE} (the rest).
+     */
+    void readAndParse(long start, TimedInputStream in) {
+        long total = System.nanoTime() - start;
+        long read = Math.min(in.nanos, total);
+        record(READ, read);
+        record(PARSE, total - read);
+    }
+
+    /**
+     * Takes the store's write lock, timing the wait.
+     */
+    void lock(Lock lock) {
+        long start = System.nanoTime();
+        TaskLockWaitEvent event = new TaskLockWaitEvent();
+        event.begin();
+        lock.lock();
+        event.acquired(writeLockName);
+        phase(LOCK_WAIT, start);
+    }
+
+    long writeLock(StampedLock lock) {
+        long start = System.nanoTime();
+        TaskLockWaitEvent event = new TaskLockWaitEvent();
+        event.begin();
+        long stamp = lock.writeLock();
+        event.acquired(writeLockName);
+        phase(LOCK_WAIT, start);
+        return stamp;
+    }
+
+    long readLock(StampedLock lock) {
+        long start = System.nanoTime();
+        TaskLockWaitEvent event = new TaskLockWaitEvent();
+        event.begin();
+        long stamp = lock.readLock();
+        event.acquired(readLockName);
+        phase(LOCK_WAIT, start);
+        return stamp;
+    }
+
+    /**
+     * Starts the Flight Recorder event of a file read or write; finish it with {@link #ioDone}.
+     */
+    TaskStoreIoEvent ioStarted() {
+        TaskStoreIoEvent event = new TaskStoreIoEvent();
+        event.begin();
+        return event;
+    }
+
+    void ioDone(TaskStoreIoEvent event, String operation, Path path, long bytes, long tasks) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.operation = operation;
+            event.path = path.toString();
+            event.bytes = bytes;
+            event.tasks = tasks;
+            event.commit();
+        }
+    }
+
+    private Timer operation(String method) {
+        return operations.computeIfAbsent(method, m -> Timer.builder("tasks.store.operation")
+                .description("Task store calls")
+                .tag("engine", engine)
+                .tag("method", m)
+                .register(registry));
+    }
+
+    private Timer phaseTimer(String phase) {
+        return phases.computeIfAbsent(phase, p -> Timer.builder("tasks.store.phase")
+                .description("Time spent by task store calls per phase")
+                .tag("engine", engine)
+                .tag("phase", p)
+                .register(registry));
+    }
+
+    /**
+     * Input stream that adds up the time its callers spend blocked in it and the bytes they get.
+     * Not thread-safe, like the parsers that read from it.
+     */
+    static final class TimedInputStream extends FilterInputStream {
+
+        private long nanos;
+        private long bytes;
+
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                int b = super.read();
+                if (b >= 0) {
+                    bytes++;
+                }
+                return b;
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    bytes += n;
+                }
+                return n;
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.skip(n);
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
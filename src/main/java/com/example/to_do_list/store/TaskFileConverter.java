@@ -0,0 +1,43 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converts a task file between {@link TaskFileFormat}s; the input format is detected.
+ * <pre>
+ * java -cp to-do-list.jar -Dloader.main=com.example.to_do_list.store.TaskFileConverter \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher tasks.json tasks-export.json [json|smile]
+ * </pre>
+ * Without a target format it writes JSON, which is the way to get a readable export of a Smile file.
+ */
+public final class TaskFileConverter {
+
+    private TaskFileConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: TaskFileConverter <input> <output> [json|smile]");
+            System.exit(2);
+        }
+        TaskFileFormat to = args.length == 3 ? TaskFileFormat.valueOf(args[2].toUpperCase(Locale.ROOT)) : TaskFileFormat.JSON;
+        int count = convert(Path.of(args[0]), Path.of(args[1]), to);
+        System.out.println("Wrote " + count + " tasks to " + args[1] + " as " + to);
+    }
+
+    /**
+     * Returns the number of tasks written.
+     */
+    public static int convert(Path input, Path output, TaskFileFormat to) throws IOException {
+        TaskFileFormat from = TaskFileFormat.detect(input);
+        List<Task> tasks = from.newMapper().readValue(input.toFile(), new TypeReference<List<Task>>(){});
+        to.writer(to.newMapper()).writeValue(output.toFile(), tasks);
+        return tasks.size();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.to_do_list.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * On-disk encodings of the task list. Both carry the same data model and are read through the
+ * same {@link com.fasterxml.jackson.core.JsonParser} API, so {@link TaskJsonScanner} works on either.
+ */
+public enum TaskFileFormat {
+    /** Pretty-printed JSON, for files people read and edit. */
+    JSON,
+    /** Jackson's binary JSON (Smile): smaller, and cheaper to parse and skip through. */
+    SMILE;
+
+    // ":)\n", the header every Smile document starts with
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    ObjectMapper newMapper() {
+        return this == SMILE ? new ObjectMapper(new SmileFactory()) : new ObjectMapper();
+    }
+
+    ObjectWriter writer(ObjectMapper mapper) {
+        return this == JSON ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer();
+    }
+
+    /**
+     * The format of an existing file, told apart by the Smile header.
+     */
+    public static TaskFileFormat detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] head = in.readNBytes(SMILE_HEADER.length);
+            for (int i = 0; i < SMILE_HEADER.length; i++) {
+                if (i >= head.length || head[i] != SMILE_HEADER[i]) {
+                    return JSON;
+                }
+            }
+            return SMILE;
+        }
+    }
+}
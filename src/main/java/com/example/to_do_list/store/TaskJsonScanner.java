@@ -0,0 +1,136 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * Reads a JSON array of tasks token by token instead of binding the whole list.
+ * <p>
+ * Each object is decoded field by field; as soon as its id or status fails the filter the rest
+ * of the object is skipped, so tasks that are not wanted never become {@link Task} instances
+ * (Jackson writes {@code id} first, so a lookup by id usually skips after one field).
+ */
+final class TaskJsonScanner {
+
+    private TaskJsonScanner() {
+    }
+
+    /**
+     * Number of task objects in the array, without decoding any of them.
+     */
+    static long count(JsonParser parser) throws IOException {
+        if (!startArray(parser)) {
+            return 0;
+        }
+        long count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            count++;
+        }
+        expectEnd(parser, token);
+        return count;
+    }
+
+    /**
+     * Highest task id in the array (0 if there is none), without binding any task.
+     */
+    static long maxId(JsonParser parser) throws IOException {
+        long[] max = {0};
+        // the id filter sees every id and rejects it, so each object is skipped after its id
+        scan(parser, id -> {
+            max[0] = Math.max(max[0], id);
+            return false;
+        }, null, task -> true);
+        return max[0];
+    }
+
+    /**
+     * Passes every task whose id matches {@code ids} and whose status matches {@code statuses}
+     * (a null filter accepts everything) to {@code visitor}, in file order, until the visitor
+     * returns false.
+     */
+    static void scan(JsonParser parser, Predicate<Long> ids, Predicate<String> statuses,
+                     Predicate<Task> visitor) throws IOException {
+        if (!startArray(parser)) {
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            Task task = readTask(parser, ids, statuses);
+            if (task != null && !visitor.test(task)) {
+                return;
+            }
+        }
+        expectEnd(parser, token);
+    }
+
+    private static boolean startArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of tasks but found " + token);
+        }
+        return true;
+    }
+
+    private static void expectEnd(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected a task object but found " + token);
+        }
+    }
+
+    // parser is on START_OBJECT; returns null (with the object skipped) if a filter rejects it
+    private static Task readTask(JsonParser parser, Predicate<Long> ids, Predicate<String> statuses) throws IOException {
+        Long id = null;
+        String title = null;
+        String description = null;
+        // absent status binds to the field default, as with ObjectMapper
+        String status = "todo";
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "id" -> {
+                    id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                    if (ids != null && (id == null || !ids.test(id))) {
+                        skipRest(parser);
+                        return null;
+                    }
+                }
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "status" -> {
+                    status = parser.getValueAsString();
+                    if (statuses != null && (status == null || !statuses.test(status))) {
+                        skipRest(parser);
+                        return null;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (ids != null && (id == null || !ids.test(id))) {
+            return null;
+        }
+        if (statuses != null && (status == null || !statuses.test(status))) {
+            return null;
+        }
+        return new Task(id, title, description, status);
+    }
+
+    // parser is on a field value; moves it to the object's END_OBJECT
+    private static void skipRest(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            parser.skipChildren();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.example.to_do_list.store;
 
 import com.example.to_do_list.model.Task;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,63 @@ public interface TaskStore {
     void deleteById(Long id);
     void deleteAll();
     long count();
+
+    /**
+     * Tasks with the given status. Stores that maintain a status index should override this
+     * so the cost follows the size of the result rather than the whole dataset.
+     */
+    default List<Task> findByStatus(String status) {
+        return findAll().stream()
+                .filter(task -> status.equals(task.getStatus()))
+                .toList();
+    }
+
+    /**
+     * Keyset page: up to {@code limit} tasks with an id greater than {@code afterId}
+     * (or from the start when it is null), in ascending id order.
+     */
+    default List<Task> findPage(Long afterId, int limit) {
+        return findAll().stream()
+                .filter(task -> afterId == null || task.getId() > afterId)
+                .sorted(Comparator.comparing(Task::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The tasks among {@code ids} that exist, in no particular order.
+     */
+    default List<Task> findAllById(Collection<Long> ids) {
+        List<Task> result = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Saves and deletes several tasks as one unit. Ids in {@code deletes} must not also appear in
+     * {@code saves}. Returns the saved tasks, with ids assigned, in the order of {@code saves}.
+     * <p>
+     * This default applies the operations one by one; stores override it to persist the whole
+     * batch with a single write, so that it is durable either completely or not at all.
+     */
+    default List<Task> applyBatch(List<Task> saves, Collection<Long> deletes) {
+        for (Long id : deletes) {
+            deleteById(id);
+        }
+        List<Task> saved = new ArrayList<>(saves.size());
+        for (Task task : saves) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    /**
+     * Writes tasks that already have ids, keeping those ids: each one replaces the task with the
+     * same id or is inserted under it. Used to copy data between stores.
+     */
+    default void importTasks(List<Task> tasks) {
+        applyBatch(tasks, List.of());
+    }
 }
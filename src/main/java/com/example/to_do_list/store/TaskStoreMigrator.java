@@ -0,0 +1,168 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Copies every task from one store to another while the source keeps taking writes.
+ * <p>
+ * Both stores are walked in id order a chunk at a time with {@link TaskStore#findPage}, so
+ * neither side is ever loaded whole. A copy pass is followed by sync passes that compare each
+ * chunk of the source with the same id range of the target, re-import tasks that differ or are
+ * missing and delete tasks the source no longer has. Writes that land on the source during a
+ * pass are picked up by the next one; the migration is verified once a pass finds nothing to
+ * fix, and that pass's counts and checksums are reported.
+ */
+public class TaskStoreMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStoreMigrator.class);
+
+    public record Report(long copied, int syncPasses, boolean verified,
+                         long sourceCount, long targetCount, long sourceChecksum, long targetChecksum) {
+    }
+
+    private final int chunkSize;
+    private final int maxSyncPasses;
+
+    public TaskStoreMigrator(int chunkSize, int maxSyncPasses) {
+        if (chunkSize < 1 || maxSyncPasses < 1) {
+            throw new IllegalArgumentException("Chunk size and sync passes must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.maxSyncPasses = maxSyncPasses;
+    }
+
+    public Report migrate(TaskStore source, TaskStore target) {
+        long copied = 0;
+        Long after = null;
+        List<Task> page;
+        do {
+            page = source.findPage(after, chunkSize);
+            if (!page.isEmpty()) {
+                target.importTasks(page);
+                copied += page.size();
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == chunkSize);
+        logger.info("Copied {} tasks, verifying", copied);
+
+        Pass pass = null;
+        for (int i = 1; i <= maxSyncPasses; i++) {
+            pass = sync(source, target);
+            logger.info("Sync pass {}: {} tasks, {} differences fixed", i, pass.sourceCount, pass.differences);
+            if (pass.differences == 0) {
+                return pass.report(copied, i, true);
+            }
+        }
+        return pass.report(copied, maxSyncPasses, false);
+    }
+
+    private Pass sync(TaskStore source, TaskStore target) {
+        Pass pass = new Pass();
+        Cursor theirs = new Cursor(target);
+        Long after = null;
+        List<Task> page;
+        do {
+            page = source.findPage(after, chunkSize);
+            long upper = page.size() == chunkSize ? page.get(page.size() - 1).getId() : Long.MAX_VALUE;
+            Map<Long, Task> range = theirs.upTo(upper);
+            for (Task task : range.values()) {
+                pass.targetCount++;
+                update(pass.targetCrc, task);
+            }
+            List<Task> stale = new ArrayList<>();
+            for (Task task : page) {
+                pass.sourceCount++;
+                update(pass.sourceCrc, task);
+                if (!same(task, range.remove(task.getId()))) {
+                    stale.add(task);
+                }
+            }
+            if (!stale.isEmpty()) {
+                target.importTasks(stale);
+            }
+            if (!range.isEmpty()) {
+                target.applyBatch(List.of(), range.keySet());
+            }
+            pass.differences += stale.size() + range.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == chunkSize);
+        return pass;
+    }
+
+    private static boolean same(Task a, Task b) {
+        return b != null
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getStatus(), b.getStatus());
+    }
+
+    private static void update(CRC32 crc, Task task) {
+        for (Object field : new Object[]{task.getId(), task.getTitle(), task.getDescription(), task.getStatus()}) {
+            crc.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+    }
+
+    private static final class Pass {
+        long sourceCount;
+        long targetCount;
+        long differences;
+        final CRC32 sourceCrc = new CRC32();
+        final CRC32 targetCrc = new CRC32();
+
+        Report report(long copied, int passes, boolean verified) {
+            return new Report(copied, passes, verified, sourceCount, targetCount, sourceCrc.getValue(), targetCrc.getValue());
+        }
+    }
+
+    // walks a store in id order, a page at a time
+    private final class Cursor {
+        private final TaskStore store;
+        private Iterator<Task> page = List.<Task>of().iterator();
+        private Task next;
+        private Long after;
+        private boolean exhausted;
+
+        Cursor(TaskStore store) {
+            this.store = store;
+        }
+
+        Map<Long, Task> upTo(long upper) {
+            Map<Long, Task> result = new LinkedHashMap<>();
+            while (peek() != null && next.getId() <= upper) {
+                result.put(next.getId(), next);
+                next = null;
+            }
+            return result;
+        }
+
+        private Task peek() {
+            if (next != null) {
+                return next;
+            }
+            if (!page.hasNext() && !exhausted) {
+                List<Task> tasks = store.findPage(after, chunkSize);
+                exhausted = tasks.size() < chunkSize;
+                if (!tasks.isEmpty()) {
+                    after = tasks.get(tasks.size() - 1).getId();
+                }
+                page = tasks.iterator();
+            }
+            next = page.hasNext() ? page.next() : null;
+            return next;
+        }
+    }
+}
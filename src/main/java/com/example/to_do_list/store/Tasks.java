@@ -0,0 +1,20 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+
+/**
+ * Helpers shared by the in-process store implementations.
+ */
+final class Tasks {
+
+    private Tasks() {
+    }
+
+    /**
+     * Stores that keep tasks in memory hand out copies, because callers (e.g. patchTask)
+     * mutate the returned instance before deciding whether to save it.
+     */
+    static Task copy(Task task) {
+        return new Task(task.getId(), task.getTitle(), task.getDescription(), task.getStatus());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.to_do_list.config;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.TaskVersions;
+import com.example.to_do_list.store.InMemoryTaskStore;
+import com.example.to_do_list.store.JsonTaskStore;
+import com.example.to_do_list.store.TaskStoreMigrator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StoreMigrationEndpointTest {
+
+    @TempDir
+    Path dir;
+
+    private final TaskVersions versions = new TaskVersions();
+
+    private StoreMigrationEndpoint endpoint(String datasourceUrl) {
+        InMemoryTaskStore source = new InMemoryTaskStore("unused.json", InMemoryTaskStore.Durability.NONE, 1000);
+        source.save(new Task(null, "Task 1", null, "todo"));
+        return new StoreMigrationEndpoint(source, versions, null, "memory", "tasks.json", "tasks.log",
+                "tasks.snapshot.json", dir.resolve("active.json").toString(), datasourceUrl, 1000, 5);
+    }
+
+    @Test
+    void migrate_shouldRefuseTheActiveStoresFiles() {
+        String active = dir.resolve("active.json").toString();
+
+        assertThatThrownBy(() -> endpoint("").migrate("json", active))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("active");
+    }
+
+    @Test
+    void migrate_shouldLeaveFilesThatAreNotAnEmptyStoreAlone() throws Exception {
+        Path notes = Files.writeString(dir.resolve("notes.txt"), "keep me");
+
+        assertThatThrownBy(() -> endpoint("").migrate("log", notes.toString()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not an empty log store");
+        assertThat(Files.readString(notes)).isEqualTo("keep me");
+    }
+
+    @Test
+    void migrate_shouldRefuseAnInMemoryDatasource() {
+        assertThatThrownBy(() -> endpoint("jdbc:h2:mem:todo_db").migrate("jpa", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("in memory");
+    }
+
+    @Test
+    void migrate_shouldAcceptAnEmptyTaskList() throws Exception {
+        Path target = Files.writeString(dir.resolve("target.json"), "[ ]");
+        StoreMigrationEndpoint endpoint = endpoint("");
+
+        TaskStoreMigrator.Report report = endpoint.migrate("json", target.toString());
+        endpoint.shutdown();
+
+        assertThat(report.verified()).isTrue();
+        assertThat(report.targetCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verifiedMigration_shouldMirrorLaterChangesUntilShutdown() throws Exception {
+        Path target = dir.resolve("target.json");
+        StoreMigrationEndpoint endpoint = endpoint("");
+        endpoint.migrate("json", target.toString());
+
+        // what TaskService publishes for writes after the report
+        versions.touch(List.of(new Task(2L, "Task 2", null, "todo")), List.of(1L));
+        assertThatThrownBy(() -> endpoint.migrate("log", dir.resolve("again.log").toString()))
+                .isInstanceOf(IllegalStateException.class);
+        endpoint.shutdown();
+
+        JsonTaskStore reopened = new JsonTaskStore(target.toString());
+        assertThat(reopened.findAll()).extracting(Task::getId).containsExactly(2L);
+        reopened.close();
+    }
+}
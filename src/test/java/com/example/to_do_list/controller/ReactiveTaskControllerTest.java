@@ -0,0 +1,158 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.exception.GlobalExceptionHandler;
+import com.example.to_do_list.limit.AdaptiveConcurrencyLimit;
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.ReactiveTaskService;
+import com.example.to_do_list.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ReactiveTaskControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    void setUp() {
+        task1 = new Task(1L, "Buy milk", "3.2% fat", "todo");
+        task2 = new Task(2L, "Launch API", "Deploy application", "in_progress");
+    }
+
+    private MockMvc mockMvc(TaskService taskService) {
+        ReactiveTaskService service = new ReactiveTaskService(taskService,
+                after -> after == null ? Flux.just(task1, task2) : Flux.just(task2), Schedulers.immediate());
+        return MockMvcBuilders.standaloneSetup(new ReactiveTaskController(service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getAllTasks_shouldStreamOneJsonLinePerTask() throws Exception {
+        MockMvc mockMvc = mockMvc(new TaskService(null, null, null, null));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/tasks").param("after", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(task2) + "\n"));
+    }
+
+    @Test
+    void getTaskById_shouldReturnTaskOrNotFound() throws Exception {
+        MockMvc mockMvc = mockMvc(new TaskService(null, null, null, null) {
+            @Override
+            public Optional<Task> getTaskById(Long id) {
+                return id == 1L ? Optional.of(task1) : Optional.empty();
+            }
+        });
+
+        MvcResult found = mockMvc.perform(get("/api/reactive/tasks/1")).andReturn();
+        mockMvc.perform(asyncDispatch(found))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Buy milk")));
+
+        MvcResult missing = mockMvc.perform(get("/api/reactive/tasks/9")).andReturn();
+        mockMvc.perform(asyncDispatch(missing))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createTask_shouldReturnCreated() throws Exception {
+        MockMvc mockMvc = mockMvc(new TaskService(null, null, null, null) {
+            @Override
+            public Task createTask(Task task) {
+                task.setId(3L);
+                return task;
+            }
+        });
+
+        MvcResult result = mockMvc.perform(post("/api/reactive/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New task\",\"status\":\"todo\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(3)));
+    }
+
+    @Test
+    void deleteTask_shouldReturnNotFound_whenTaskDoesNotExist() throws Exception {
+        MockMvc mockMvc = mockMvc(new TaskService(null, null, null, null) {
+            @Override
+            public boolean deleteTask(Long id) {
+                return false;
+            }
+        });
+
+        MvcResult result = mockMvc.perform(delete("/api/reactive/tasks/9")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void saturatedScheduler_shouldAnswerServiceUnavailable() throws Exception {
+        // what subscribeOn delivers when the bounded scheduler's threads and queue are all taken
+        MockMvc mockMvc = mockMvc(new TaskService(null, null, null, null) {
+            @Override
+            public Optional<Task> getTaskById(Long id) {
+                throw new RejectedExecutionException("Task capacity of bounded elastic scheduler reached");
+            }
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/tasks/1")).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void singleValueHandler_shouldHoldItsPermitUntilTheResponseIsComplete() throws Exception {
+        AdaptiveConcurrencyLimit reads = new AdaptiveConcurrencyLimit("read", 1, 1, 1);
+        ReactiveTaskService service = new ReactiveTaskService(new TaskService(null, null, null, null) {
+            @Override
+            public Optional<Task> getTaskById(Long id) {
+                return Optional.of(task1);
+            }
+        }, after -> Flux.empty(), Schedulers.immediate());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ReactiveTaskController(service))
+                .addInterceptors(new ConcurrencyLimitInterceptor(reads,
+                        new AdaptiveConcurrencyLimit("write", 1, 1, 1), Duration.ofSeconds(1)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult first = mockMvc.perform(get("/api/reactive/tasks/1")).andReturn();
+        assertThat(reads.getInflight()).isEqualTo(1);
+        mockMvc.perform(get("/api/reactive/tasks/1"))
+                .andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk());
+        assertThat(reads.getInflight()).isZero();
+    }
+}
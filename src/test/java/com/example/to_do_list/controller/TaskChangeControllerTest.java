@@ -0,0 +1,50 @@
+package com.example.to_do_list.controller;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.service.TaskChangeFeed;
+import com.example.to_do_list.service.TaskVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class TaskChangeControllerTest {
+
+    private final TaskVersions versions = new TaskVersions();
+    private final TaskChangeFeed feed = new TaskChangeFeed(versions, 100);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TaskChangeController(feed, Duration.ofSeconds(15)))
+            .build();
+
+    @Test
+    void getChanges_shouldReturnDeltasAndNextCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/api/tasks/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        versions.touch(List.of(new Task(7L, "Buy milk", null, "todo")), List.of(3L));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("delete")))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[1].type", is("save")))
+                .andExpect(jsonPath("$[1].task.title", is("Buy milk")))
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(feed.latest())));
+    }
+
+    @Test
+    void getChanges_shouldAnswerGone_forUnknownCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks/changes").param("since", "1"))
+                .andExpect(status().isGone());
+    }
+}
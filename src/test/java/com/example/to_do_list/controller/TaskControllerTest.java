@@ -2,6 +2,7 @@ package com.example.to_do_list.controller;
 
 import com.example.to_do_list.model.Task;
 import com.example.to_do_list.service.TaskService;
+import com.example.to_do_list.service.TaskVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,13 +37,13 @@ public class TaskControllerTest {
 
     @Test
     void getAllTasks_shouldReturnTasksList() throws Exception {
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
             public java.util.List<Task> getAllTasks() {
                 return Arrays.asList(task1, task2);
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
@@ -55,13 +56,13 @@ public class TaskControllerTest {
 
     @Test
     void getTaskById_shouldReturnTask_whenTaskExists() throws Exception {
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
             public java.util.Optional<Task> getTaskById(Long id) {
                 return Optional.of(task1);
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(get("/api/tasks/1"))
                 .andExpect(status().isOk())
@@ -70,31 +71,110 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.status", is("todo")));
     }
 
+    @Test
+    void getTaskById_shouldAnswerNotModified_whileTaskIsUnchanged() throws Exception {
+        TaskVersions versions = new TaskVersions();
+        java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.Optional<Task> getTaskById(Long id) {
+                calls.incrementAndGet();
+                return Optional.of(task1);
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, versions, objectMapper)).build();
+
+        String etag = mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        org.assertj.core.api.Assertions.assertThat(calls).hasValue(2);
+
+        versions.touch(java.util.List.of(task1), java.util.List.of());
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)));
+        org.assertj.core.api.Assertions.assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void getTaskById_shouldIgnoreIfModifiedSince_afterTwoWritesInOneSecond() throws Exception {
+        TaskVersions versions = new TaskVersions();
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.Optional<Task> getTaskById(Long id) {
+                return Optional.of(task1);
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, versions, objectMapper)).build();
+        TaskVersions.Stamp first;
+        TaskVersions.Stamp second;
+        do {
+            versions.touch(java.util.List.of(task1), java.util.List.of());
+            first = versions.of(1L);
+            versions.touch(java.util.List.of(task1), java.util.List.of());
+            second = versions.of(1L);
+        } while (first.lastModified() / 1000 != second.lastModified() / 1000);
+
+        // a copy taken between the two writes carries the same Last-Modified as a current one
+        mockMvc.perform(get("/api/tasks/1").header("If-Modified-Since", new java.util.Date(first.lastModified())))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(header().string("ETag", versions.etag(second)));
+    }
+
     @Test
     void getTaskById_shouldReturnNotFound_whenTaskDoesNotExist() throws Exception {
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
             public java.util.Optional<Task> getTaskById(Long id) {
                 return Optional.empty();
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(get("/api/tasks/999"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getTaskById_shouldNotValidateConditions_forMissingTask() throws Exception {
+        TaskVersions versions = new TaskVersions();
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.Optional<Task> getTaskById(Long id) {
+                return Optional.empty();
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, versions, objectMapper)).build();
+        // the tag a deleted task had, and a date later than startup
+        versions.touch(java.util.List.of(), java.util.List.of(999L));
+        String etag = versions.etag(versions.of(999L));
+
+        mockMvc.perform(get("/api/tasks/999").header("If-None-Match", etag))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(get("/api/tasks/999")
+                        .header("If-Modified-Since", new java.util.Date(System.currentTimeMillis() + 60_000)))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
     @Test
     void createTask_shouldReturnCreatedTask() throws Exception {
         Task newTask = new Task(null, "New Task", "Description", "todo");
         Task savedTask = new Task(3L, "New Task", "Description", "todo");
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
             public Task createTask(Task task) {
                 return savedTask;
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(post("/api/tasks")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,13 +189,13 @@ public class TaskControllerTest {
     void updateTask_shouldReturnUpdatedTask() throws Exception {
         Task updatedTask = new Task(null, "Updated Task", "Updated Description", "done");
         Task savedTask = new Task(1L, "Updated Task", "Updated Description", "done");
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public java.util.Optional<Task> updateTask(Long id, Task task) {
+            public java.util.Optional<Task> updateTask(Long id, Task task, String ifMatch) {
                 return Optional.of(savedTask);
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(put("/api/tasks/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -129,13 +209,13 @@ public class TaskControllerTest {
     @Test
     void updateTask_shouldReturnNotFound_whenTaskDoesNotExist() throws Exception {
         Task updatedTask = new Task(null, "Updated Task", "Description", "done");
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public java.util.Optional<Task> updateTask(Long id, Task task) {
+            public java.util.Optional<Task> updateTask(Long id, Task task, String ifMatch) {
                 return Optional.empty();
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(put("/api/tasks/999")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -145,13 +225,13 @@ public class TaskControllerTest {
 
     @Test
     void deleteTask_shouldReturnNoContent_whenTaskExists() throws Exception {
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public boolean deleteTask(Long id) {
+            public boolean deleteTask(Long id, String ifMatch) {
                 return true;
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(delete("/api/tasks/1"))
                 .andExpect(status().isNoContent());
@@ -159,13 +239,13 @@ public class TaskControllerTest {
 
     @Test
     void deleteTask_shouldReturnNotFound_whenTaskDoesNotExist() throws Exception {
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public boolean deleteTask(Long id) {
+            public boolean deleteTask(Long id, String ifMatch) {
                 return false;
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(delete("/api/tasks/999"))
                 .andExpect(status().isNotFound());
@@ -177,13 +257,13 @@ public class TaskControllerTest {
         partial.setStatus("done");
 
         Task saved = new Task(2L, "Launch API", "Deploy application", "done");
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public java.util.Optional<Task> patchTask(Long id, Task partialTask) {
+            public java.util.Optional<Task> patchTask(Long id, Task partialTask, String ifMatch) {
                 return Optional.of(saved);
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub)).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
 
         mockMvc.perform(patch("/api/tasks/2")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -197,13 +277,13 @@ public class TaskControllerTest {
     void patchTask_shouldReturnBadRequest_forInvalidStatus() throws Exception {
         Task partial = new Task();
         partial.setStatus("invalid_status");
-        TaskService stub = new TaskService(null) {
+        TaskService stub = new TaskService(null, null, null, null) {
             @Override
-            public java.util.Optional<Task> patchTask(Long id, Task partialTask) {
+            public java.util.Optional<Task> patchTask(Long id, Task partialTask, String ifMatch) {
                 throw new IllegalArgumentException("Invalid status");
             }
         };
-        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub))
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper))
                 .setControllerAdvice(new com.example.to_do_list.exception.GlobalExceptionHandler())
                 .build();
 
@@ -212,4 +292,81 @@ public class TaskControllerTest {
                         .content(objectMapper.writeValueAsString(partial)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllTasks_withLimit_shouldReturnPageAndNextCursor() throws Exception {
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.List<Task> getTasksPage(Long after, int limit) {
+                return Arrays.asList(task1, task2);
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
+
+        mockMvc.perform(get("/api/tasks").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Next-Cursor", "2"));
+    }
+
+    @Test
+    void getAllTasks_lastPage_shouldNotSetNextCursor() throws Exception {
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.List<Task> getTasksPage(Long after, int limit) {
+                return java.util.List.of(task2);
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
+
+        mockMvc.perform(get("/api/tasks").param("limit", "2").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void streamTasks_shouldWriteOneJsonLinePerTask() throws Exception {
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.List<Task> getTasksPage(Long after, int limit) {
+                return after == null ? Arrays.asList(task1, task2) : java.util.List.of();
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/api/tasks")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(task1) + "\n" + objectMapper.writeValueAsString(task2) + "\n"));
+    }
+
+    @Test
+    void applyBatch_shouldReturnResultPerOperation() throws Exception {
+        TaskService stub = new TaskService(null, null, null, null) {
+            @Override
+            public java.util.List<com.example.to_do_list.dto.BatchResult> applyBatch(
+                    java.util.List<com.example.to_do_list.dto.BatchOperation> operations) {
+                return java.util.List.of(
+                        new com.example.to_do_list.dto.BatchResult(0, "create", 1L, 201, task1),
+                        new com.example.to_do_list.dto.BatchResult(1, "delete", 9L, 404, null));
+            }
+        };
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(stub, new TaskVersions(), objectMapper)).build();
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"op\":\"create\",\"task\":{\"title\":\"Buy milk\"}},{\"op\":\"delete\",\"id\":9}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].task.title", is("Buy milk")))
+                .andExpect(jsonPath("$[1].status", is(404)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.to_do_list.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void tryAcquire_shouldRejectOnceLimitIsReached() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 3, 1, 10, 1.5, 10, registry);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        limit.release(FAST);
+        assertThat(limit.tryAcquire()).isTrue();
+
+        assertThat(limit.getInflight()).isEqualTo(3);
+        assertThat(registry.get("tasks.concurrency.rejected").tag("budget", "read").counter().count()).isEqualTo(1);
+        assertThat(registry.get("tasks.concurrency.limit").tag("budget", "read").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("tasks.concurrency.inflight").tag("budget", "read").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void limit_shouldGrowAtSteadyLatencyAndShrinkWhenRequestsQueue() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("write", 20, 2, 200);
+
+        runWindows(limit, 20, FAST);
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        runWindows(limit, 20, SLOW);
+        assertThat(limit.getLimit()).isLessThan(grown / 2).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void limit_shouldNotGrowWhileMostPermitsAreUnused() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("read", 50, 10, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(50);
+    }
+
+    // each window holds the whole limit at once, then releases it with the given latency
+    private static void runWindows(AdaptiveConcurrencyLimit limit, int windows, long rttNanos) {
+        for (int w = 0; w < windows; w++) {
+            int permits = limit.getLimit();
+            for (int i = 0; i < permits; i++) {
+                assertThat(limit.tryAcquire()).isTrue();
+            }
+            for (int i = 0; i < permits; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
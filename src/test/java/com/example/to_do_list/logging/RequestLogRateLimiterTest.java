@@ -0,0 +1,44 @@
+package com.example.to_do_list.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestLogRateLimiterTest {
+
+    @Test
+    void linesOverTheLimit_shouldBeSuppressedAndCounted() {
+        LoggerContext context = new LoggerContext();
+        RequestLogRateLimiter limiter = new RequestLogRateLimiter();
+        limiter.setLoggers("app.controller, app.exception");
+        limiter.setMaxPerSecond(3);
+        limiter.start();
+        context.addTurboFilter(limiter);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        Logger controller = context.getLogger("app.controller.TaskController");
+        for (int i = 0; i < 20; i++) {
+            controller.info("request {}", i);
+            // below the effective level: neither logged nor counted against the limit
+            controller.debug("detail {}", i);
+        }
+        controller.error("failure");
+        context.getLogger("app.store.JsonTaskStore").info("not limited");
+
+        long limited = appender.list.stream().filter(e -> e.getLevel() == Level.INFO
+                && e.getLoggerName().startsWith("app.controller")).count();
+        // the loop may straddle a second boundary and get two windows
+        assertThat(limited).isBetween(3L, 6L);
+        assertThat(limited + limiter.getSuppressedCount()).isEqualTo(20);
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).contains("failure", "not limited");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.dto.TaskChange;
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskChangeFeedTest {
+
+    private final TaskVersions versions = new TaskVersions();
+    private final TaskChangeFeed feed = new TaskChangeFeed(versions, 3);
+
+    private static Task task(long id, String title) {
+        return new Task(id, title, null, "todo");
+    }
+
+    @Test
+    void since_shouldReturnChangesInOrderWithoutGaps() {
+        long start = feed.latest();
+
+        versions.touch(List.of(task(1, "a"), task(2, "b")), List.of());
+        versions.touch(List.of(), List.of(1L));
+
+        List<TaskChange> changes = feed.since(start, 10).orElseThrow();
+        assertThat(changes).extracting(TaskChange::getSeq).containsExactly(start + 1, start + 2, start + 3);
+        assertThat(changes).extracting(TaskChange::getType)
+                .containsExactly(TaskChange.SAVE, TaskChange.SAVE, TaskChange.DELETE);
+        assertThat(changes.get(1).getTask().getTitle()).isEqualTo("b");
+        assertThat(changes.get(2).getTask()).isNull();
+        assertThat(feed.since(start, 2).orElseThrow()).hasSize(2);
+        assertThat(feed.since(feed.latest(), 10).orElseThrow()).isEmpty();
+        assertThat(versions.of(1L).version()).isEqualTo(start + 3);
+    }
+
+    @Test
+    void since_shouldRejectCursorsOutsideRetention() {
+        long start = feed.latest();
+        assertThat(feed.since(start - 1, 10)).isEmpty();
+
+        for (int i = 1; i <= 5; i++) {
+            versions.touch(List.of(task(i, "t" + i)), List.of());
+        }
+
+        // only the last three changes are retained
+        assertThat(feed.since(start + 1, 10)).isEmpty();
+        assertThat(feed.since(start + 2, 10).orElseThrow()).extracting(TaskChange::getId).containsExactly(3L, 4L, 5L);
+        assertThat(feed.since(feed.latest() + 1, 10)).isEmpty();
+    }
+
+    @Test
+    void await_shouldWakeUpOnNextChange() throws Exception {
+        long start = feed.latest();
+        assertThat(feed.await(start, Duration.ofMillis(10))).isFalse();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.await(start, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        versions.touch(List.of(task(1, "a")), List.of());
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.to_do_list.service;
+
+import com.example.to_do_list.model.Task;
+import com.example.to_do_list.store.InMemoryTaskStore;
+import com.example.to_do_list.store.JsonTaskStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class TaskSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tokenize_shouldSplitOnNonLettersAndFoldCase() {
+        assertThat(TaskSearchIndex.tokenize("Купить МОЛОКО, 3.2% жирности; Ёлка-2"))
+                .containsExactly("купить", "молоко", "3", "2", "жирности", "елка", "2");
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndRankTitleMatchesFirst() {
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString());
+        store.save(new Task(null, "Позвонить врачу", "записаться на приём молока нет", "todo"));
+        store.save(new Task(null, "Купить молоко", "в магазине у дома", "todo"));
+        store.save(new Task(null, "Отчёт", "подготовить квартальный отчёт", "done"));
+        TaskSearchIndex index = new TaskSearchIndex(store, new TaskVersions());
+
+        TaskSearchIndex.Page page = index.search("МОЛОК", 0, 10);
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.tasks()).extracting(Task::getTitle).containsExactly("Купить молоко", "Позвонить врачу");
+
+        assertThat(index.search("отчет квартал", 0, 10).tasks()).extracting(Task::getTitle).containsExactly("Отчёт");
+        assertThat(index.search("купить отчёт", 0, 10).total()).isZero();
+        assertThat(index.search("мол", 1, 10).tasks()).extracting(Task::getTitle).containsExactly("Позвонить врачу");
+        assertThatThrownBy(() -> index.search(" ,. ", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search_shouldFollowWritesWithoutRebuilding() {
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString());
+        Task milk = store.save(new Task(null, "Купить молоко", null, "todo"));
+        TaskVersions versions = new TaskVersions();
+        TaskSearchIndex index = new TaskSearchIndex(store, versions);
+        assertThat(index.search("молоко", 0, 10).total()).isEqualTo(1);
+
+        // from now on the index only learns about writes from the change stream
+        Task bread = new Task(99L, "Купить хлеб", null, "todo");
+        versions.touch(List.of(bread, new Task(milk.getId(), "Купить кефир", null, "todo")), List.of());
+
+        assertThat(index.search("молоко", 0, 10).total()).isZero();
+        assertThat(index.search("куп", 0, 10).tasks()).extracting(Task::getId).containsExactly(milk.getId(), 99L);
+
+        versions.touch(List.of(), List.of(99L));
+        assertThat(index.search("хлеб", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void changesDuringBuild_shouldNotWaitForStoreAndShouldBeApplied() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryTaskStore store = new InMemoryTaskStore(dir.resolve("tasks.json").toString(), InMemoryTaskStore.Durability.NONE, 0) {
+            @Override
+            public List<Task> findPage(Long afterId, int limit) {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findPage(afterId, limit);
+            }
+        };
+        Task milk = store.save(new Task(null, "Купить молоко", null, "todo"));
+        TaskVersions versions = new TaskVersions();
+        TaskSearchIndex index = new TaskSearchIndex(store, versions);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        Future<TaskSearchIndex.Page> search = pool.submit(() -> index.search("куп", 0, 10));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        // the build is blocked in the store; publishing must not wait for it
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> versions.touch(List.of(new Task(99L, "Купить хлеб", null, "todo")), List.of()));
+        release.countDown();
+
+        assertThat(search.get(5, TimeUnit.SECONDS).tasks()).extracting(Task::getId).containsExactly(milk.getId(), 99L);
+        pool.shutdown();
+    }
+}
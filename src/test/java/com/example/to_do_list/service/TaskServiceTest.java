@@ -1,20 +1,29 @@
 package com.example.to_do_list.service;
 
+import com.example.to_do_list.dto.BatchOperation;
+import com.example.to_do_list.dto.BatchResult;
+import com.example.to_do_list.exception.PreconditionFailedException;
 import com.example.to_do_list.model.Task;
 import com.example.to_do_list.store.TaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,14 +32,19 @@ public class TaskServiceTest {
     @Mock
     private TaskStore taskRepository;
 
-    @InjectMocks
     private TaskService taskService;
+    private TaskVersions versions;
 
     private Task task1;
     private Task task2;
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskCache taskCache = new TaskCache(taskRepository, 100, Duration.ofMinutes(10), Duration.ofSeconds(30),
+                Duration.ofMinutes(1), registry);
+        versions = new TaskVersions();
+        taskService = new TaskService(taskRepository, new TaskListCache(taskRepository, registry), taskCache, versions);
         task1 = new Task(1L, "Task 1", "Description 1", "todo");
         task2 = new Task(2L, "Task 2", "Description 2", "in_progress");
     }
@@ -132,6 +146,28 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
     }
 
+    @Test
+    void updateTask_withIfMatch_shouldOnlyApplyToCurrentVersion() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String original = versions.etag(versions.of(1L));
+        long globalBefore = versions.current().version();
+
+        taskService.updateTask(1L, new Task(null, "Task 1", "second", "todo"), original);
+
+        assertThat(versions.etag(versions.of(1L))).isNotEqualTo(original);
+        assertThat(versions.current().version()).isGreaterThan(globalBefore);
+        assertThat(versions.of(2L).version()).isZero();
+        assertThatThrownBy(() -> taskService.updateTask(1L, new Task(null, "Task 1", "third", "todo"), original))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> taskService.deleteTask(1L, original))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, never()).deleteById(1L);
+
+        assertThat(taskService.deleteTask(1L, versions.etag(versions.of(1L)) + ", \"other\"")).isTrue();
+    }
+
     @Test
     void updateTask_shouldReturnEmpty_whenNotExists() {
         // Arrange
@@ -197,4 +233,159 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).existsById(999L);
         verify(taskRepository, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTasksByStatus_shouldBeServedFromLoadedViews() {
+        // Arrange
+        when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
+
+        // Act
+        List<Task> inProgress = taskService.getTasksByStatus("in_progress");
+        List<Task> todo = taskService.getTasksByStatus("todo");
+
+        // Assert
+        assertThat(inProgress).containsExactly(task2);
+        assertThat(todo).containsExactly(task1);
+        verify(taskRepository, times(1)).findAll();
+    }
+
+    @Test
+    void writes_shouldUpdateListViewsWithoutReloading() {
+        // Arrange
+        when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
+        List<Task> before = taskService.getAllTasks();
+        Task created = new Task(3L, "Task 3", "Description 3", "todo");
+        Task moved = new Task(1L, "Task 1", "Description 1", "done");
+        when(taskRepository.save(any(Task.class))).thenReturn(created);
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(created));
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(moved));
+        when(taskRepository.existsById(2L)).thenReturn(true);
+        when(taskRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act
+        taskService.createTask(new Task(null, "Task 3", "Description 3", "todo"));
+        taskService.updateTask(1L, new Task(null, "Task 1", "Description 1", "done"));
+        taskService.deleteTask(2L);
+
+        // Assert
+        assertThat(taskService.getAllTasks()).extracting(Task::getId).containsExactly(1L, 3L);
+        assertThat(taskService.getTasksByStatus("todo")).extracting(Task::getId).containsExactly(3L);
+        assertThat(taskService.getTasksByStatus("done")).extracting(Task::getId).containsExactly(1L);
+        // a live view of the patched maps, not a copy rebuilt after each write
+        assertThat(before).extracting(Task::getId).containsExactly(1L, 3L);
+        verify(taskRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getTaskById_shouldCacheNotFound_untilTaskIsCreated() {
+        // Arrange
+        Task created = new Task(3L, "New Task", "Description", "todo");
+        when(taskRepository.findById(3L)).thenReturn(Optional.empty(), Optional.of(created));
+        when(taskRepository.save(any(Task.class))).thenReturn(created);
+
+        // Act
+        Optional<Task> before = taskService.getTaskById(3L);
+        Optional<Task> beforeAgain = taskService.getTaskById(3L);
+        taskService.createTask(new Task(null, "New Task", "Description", "todo"));
+        Optional<Task> after = taskService.getTaskById(3L);
+
+        // Assert
+        assertThat(before).isEmpty();
+        assertThat(beforeAgain).isEmpty();
+        assertThat(after).contains(created);
+        verify(taskRepository, times(2)).findById(3L);
+    }
+
+    @Test
+    void updateTask_inTransaction_shouldUpdateCachesOnlyAfterCommit() {
+        // Arrange
+        Task updated = new Task(1L, "Updated", "Description 1", "done");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.of(updated));
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        taskService.getTaskById(1L);
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        Optional<Task> beforeCommit;
+        try {
+            taskService.updateTask(1L, new Task(null, "Updated", "Description 1", "done"));
+            beforeCommit = taskService.getTaskById(1L);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertThat(beforeCommit).contains(task1);
+        assertThat(taskService.getTaskById(1L)).contains(updated);
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deleteTask_shouldOnlyInvalidateDeletedId() {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task2), Optional.empty());
+        when(taskRepository.existsById(2L)).thenReturn(true);
+        taskService.getTaskById(1L);
+        taskService.getTaskById(2L);
+
+        // Act
+        taskService.deleteTask(2L);
+
+        // Assert
+        assertThat(taskService.getTaskById(1L)).contains(task1);
+        assertThat(taskService.getTaskById(2L)).isEmpty();
+        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void applyBatch_shouldWriteNetEffectOnceAndReportEachOperation() {
+        // Arrange
+        when(taskRepository.findAllById(any())).thenReturn(Arrays.asList(task1, task2));
+        when(taskRepository.applyBatch(anyList(), anyCollection())).thenAnswer(invocation -> {
+            List<Task> saves = invocation.getArgument(0);
+            saves.stream().filter(t -> t.getId() == null).forEach(t -> t.setId(3L));
+            return saves;
+        });
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(BatchOperation.CREATE, null, new Task(null, "Task 3", null, null)),
+                new BatchOperation(BatchOperation.PATCH, 1L, new Task(null, null, null, "done")),
+                new BatchOperation(BatchOperation.DELETE, 2L, null),
+                new BatchOperation(BatchOperation.UPDATE, 2L, new Task(null, "Task 2", null, "todo")));
+
+        // Act
+        List<BatchResult> results = taskService.applyBatch(operations);
+
+        // Assert
+        assertThat(results).extracting(BatchResult::getStatus).containsExactly(201, 200, 204, 404);
+        assertThat(results.get(0).getId()).isEqualTo(3L);
+        assertThat(results.get(0).getTask().getStatus()).isEqualTo("todo");
+        assertThat(results.get(1).getTask().getStatus()).isEqualTo("done");
+        verify(taskRepository, times(1)).applyBatch(anyList(), eq(java.util.Set.of(2L)));
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void applyBatch_shouldRejectWholeBatch_whenAnyOperationIsInvalid() {
+        // Arrange
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(BatchOperation.CREATE, null, new Task(null, "Valid", null, "todo")),
+                new BatchOperation(BatchOperation.PATCH, 1L, new Task(null, null, null, "unknown")),
+                new BatchOperation(BatchOperation.DELETE, null, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.applyBatch(operations))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("operations[1]")
+                .hasMessageContaining("operations[2]");
+        verifyNoInteractions(taskRepository);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockingReactiveTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger pagesRead = new AtomicInteger();
+    private final Set<String> readerThreads = ConcurrentHashMap.newKeySet();
+
+    private JsonTaskStore store(int tasks) {
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString()) {
+            @Override
+            public List<Task> findPage(Long afterId, int limit) {
+                pagesRead.incrementAndGet();
+                readerThreads.add(Thread.currentThread().getName());
+                return super.findPage(afterId, limit);
+            }
+        };
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            batch.add(new Task(null, "Task " + i, null, "todo"));
+        }
+        store.applyBatch(batch, List.of());
+        return store;
+    }
+
+    @Test
+    void findAll_shouldOnlyReadPagesThatWereRequested() {
+        BlockingReactiveTaskStore reactive = new BlockingReactiveTaskStore(store(10), Schedulers.immediate(), 3);
+
+        StepVerifier.create(reactive.findAll(null), 1)
+                .expectNextMatches(task -> task.getId() == 1L)
+                .then(() -> assertThat(pagesRead).hasValue(1))
+                .thenRequest(4)
+                .expectNextCount(4)
+                .then(() -> assertThat(pagesRead).hasValue(2))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void findAll_shouldStreamEveryTaskInIdOrderOnTheScheduler() {
+        Scheduler scheduler = Schedulers.newBoundedElastic(2, 10, "task-store-io");
+        BlockingReactiveTaskStore reactive = new BlockingReactiveTaskStore(store(10), scheduler, 3);
+
+        StepVerifier.create(reactive.findAll(4L).map(Task::getId))
+                .expectNext(5L, 6L, 7L, 8L, 9L, 10L)
+                .verifyComplete();
+
+        // 5-7, 8-10, then an empty page that ends the stream
+        assertThat(pagesRead).hasValue(3);
+        assertThat(readerThreads).allMatch(name -> name.startsWith("task-store-io"));
+        scheduler.dispose();
+    }
+}
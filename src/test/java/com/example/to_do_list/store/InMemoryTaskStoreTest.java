@@ -0,0 +1,93 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InMemoryTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void statusIndex_shouldFollowStatusChanges() {
+        InMemoryTaskStore store = new InMemoryTaskStore(dir.resolve("tasks.json").toString(),
+                InMemoryTaskStore.Durability.NONE, 1000);
+        Task task = store.save(new Task(null, "Task 1", null, "todo"));
+        store.save(new Task(null, "Task 2", null, "todo"));
+
+        task.setStatus("done");
+        store.save(task);
+
+        assertThat(store.findByStatus("todo")).extracting(Task::getTitle).containsExactly("Task 2");
+        assertThat(store.findByStatus("done")).extracting(Task::getTitle).containsExactly("Task 1");
+
+        store.deleteById(task.getId());
+        assertThat(store.findByStatus("done")).isEmpty();
+    }
+
+    @Test
+    void asyncWrites_shouldBePersistedByFlush() {
+        Path file = dir.resolve("tasks.json");
+        InMemoryTaskStore store = new InMemoryTaskStore(file.toString(), InMemoryTaskStore.Durability.ASYNC, 60_000);
+        store.save(new Task(null, "Task 1", null, "todo"));
+        store.save(new Task(null, "Task 2", null, "in_progress"));
+
+        assertThat(Files.exists(file)).isFalse();
+        store.close();
+
+        InMemoryTaskStore reopened = new InMemoryTaskStore(file.toString(), InMemoryTaskStore.Durability.ASYNC, 60_000);
+        assertThat(reopened.count()).isEqualTo(2);
+        assertThat(reopened.findByStatus("in_progress")).extracting(Task::getTitle).containsExactly("Task 2");
+        assertThat(reopened.save(new Task(null, "Task 3", null, "todo")).getId()).isEqualTo(3L);
+        reopened.close();
+    }
+
+    @Test
+    void syncWrites_shouldBeOnDiskWhenSaveReturns() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        InMemoryTaskStore store = new InMemoryTaskStore(file.toString(), InMemoryTaskStore.Durability.SYNC, 60_000);
+
+        store.save(new Task(null, "Task 1", null, "todo"));
+
+        assertThat(Files.readString(file)).contains("Task 1");
+        store.close();
+    }
+
+    @Test
+    void smileFileOfTheJsonEngine_shouldLoadAndStaySmile() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore json = new JsonTaskStore(file.toString(), TaskFileFormat.SMILE, JsonTaskStore.FsyncPolicy.ALWAYS,
+                Duration.ofSeconds(1), Duration.ofMillis(1), 256, new SimpleMeterRegistry());
+        json.save(new Task(null, "Task 1", null, "todo"));
+        json.close();
+
+        InMemoryTaskStore store = new InMemoryTaskStore(file.toString(), TaskFileFormat.SMILE,
+                InMemoryTaskStore.Durability.SYNC, 60_000, new SimpleMeterRegistry());
+        assertThat(store.findAll()).extracting(Task::getTitle).containsExactly("Task 1");
+        store.save(new Task(null, "Task 2", null, "todo"));
+        store.close();
+
+        assertThat(TaskFileFormat.detect(file)).isEqualTo(TaskFileFormat.SMILE);
+    }
+
+    @Test
+    void writesAfterClose_shouldBeRejected() {
+        InMemoryTaskStore store = new InMemoryTaskStore(dir.resolve("tasks.json").toString(),
+                InMemoryTaskStore.Durability.SYNC, 60_000);
+        store.close();
+
+        assertThatThrownBy(() -> store.save(new Task(null, "Task 1", null, "todo")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+        assertThat(store.count()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "todo.store.engine=jpa")
+@Import(JpaTaskStore.class)
+public class JpaTaskStoreTest {
+
+    @Autowired
+    private JpaTaskStore store;
+
+    @Test
+    void queries_shouldUseStatusAndKeysetOrder() {
+        Task first = store.save(new Task(null, "Task 1", null, "todo"));
+        Task second = store.save(new Task(null, "Task 2", null, "done"));
+        Task third = store.save(new Task(null, "Task 3", null, "todo"));
+
+        assertThat(store.findByStatus("todo")).extracting(Task::getTitle).containsExactly("Task 1", "Task 3");
+        assertThat(store.findPage(null, 2)).extracting(Task::getId).containsExactly(first.getId(), second.getId());
+        assertThat(store.findPage(second.getId(), 2)).extracting(Task::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    void applyBatch_shouldSaveAcrossFlushesAndDelete() {
+        Task doomed = store.save(new Task(null, "Doomed", null, "todo"));
+        List<Task> saves = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            saves.add(new Task(null, "Task " + i, null, "todo"));
+        }
+
+        List<Task> saved = store.applyBatch(saves, List.of(doomed.getId()));
+
+        assertThat(saved).hasSize(120).allSatisfy(task -> assertThat(task.getId()).isNotNull());
+        assertThat(saves).extracting(Task::getId).doesNotContainNull();
+        assertThat(store.existsById(doomed.getId())).isFalse();
+        assertThat(store.count()).isEqualTo(120);
+    }
+
+    @Test
+    // a fresh persistence unit: the ids the other tests allocated would make the import refuse
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void importTasks_shouldKeepIds() {
+        store.importTasks(List.of(new Task(500L, "Imported", null, "todo"), new Task(501L, "Imported too", null, "done")));
+        store.importTasks(List.of(new Task(500L, "Updated", null, "done")));
+
+        Task created = store.save(new Task(null, "New", null, "todo"));
+
+        assertThat(store.findById(500L)).get().extracting(Task::getTitle).isEqualTo("Updated");
+        assertThat(store.findById(501L)).isPresent();
+        assertThat(created.getId()).isNotIn(500L, 501L);
+        assertThat(store.count()).isEqualTo(3);
+    }
+
+    @Test
+    void importTasks_shouldRefuse_onceIdsHaveBeenAllocated() {
+        store.save(new Task(null, "New", null, "todo"));
+
+        assertThatThrownBy(() -> store.importTasks(List.of(new Task(500L, "Imported", null, "todo"))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
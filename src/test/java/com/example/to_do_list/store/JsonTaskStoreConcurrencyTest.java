@@ -0,0 +1,190 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed read/write load against a single JsonTaskStore. Writers publish the version they have
+ * had acknowledged; a read that starts after that acknowledgement must observe at least that
+ * version (no stale reads), and no reader may ever see a task go back to an older version.
+ */
+public class JsonTaskStoreConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int TASKS_PER_WRITER = 20;
+    private static final int UPDATES_PER_TASK = 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mixedLoad_shouldBeLinearizable() throws Exception {
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString());
+        Map<Long, Integer> acknowledged = new ConcurrentHashMap<>();
+        Set<Long> createdIds = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                List<Task> own = new ArrayList<>();
+                for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                    Task task = store.save(new Task(null, "task", "0", "todo"));
+                    assertThat(createdIds.add(task.getId())).as("id %s handed out twice", task.getId()).isTrue();
+                    acknowledged.put(task.getId(), 0);
+                    own.add(task);
+                }
+                for (int version = 1; version <= UPDATES_PER_TASK; version++) {
+                    for (Task task : own) {
+                        store.save(new Task(task.getId(), "task", String.valueOf(version), "todo"));
+                        acknowledged.put(task.getId(), version);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                Map<Long, Integer> lastSeen = new HashMap<>();
+                long lastCount = 0;
+                while (writing.get()) {
+                    List<Long> ids = new ArrayList<>(acknowledged.keySet());
+                    if (ids.isEmpty()) {
+                        continue;
+                    }
+                    Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    int floor = acknowledged.get(id);
+
+                    Optional<Task> read = store.findById(id);
+
+                    assertThat(read).as("task %s was acknowledged but is not visible", id).isPresent();
+                    int version = Integer.parseInt(read.get().getDescription());
+                    assertThat(version).as("stale read of task %s", id).isGreaterThanOrEqualTo(floor);
+                    assertThat(version).as("task %s went back in time", id)
+                            .isGreaterThanOrEqualTo(lastSeen.getOrDefault(id, 0));
+                    lastSeen.put(id, version);
+
+                    long count = store.count();
+                    assertThat(count).as("count went backwards").isGreaterThanOrEqualTo(lastCount);
+                    lastCount = count;
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(store.count()).isEqualTo(WRITERS * TASKS_PER_WRITER);
+        for (Task task : store.findAll()) {
+            assertThat(task.getDescription()).isEqualTo(String.valueOf(UPDATES_PER_TASK));
+        }
+    }
+
+    @Test
+    void concurrentWrites_shouldBeGroupCommitted() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString(), TaskFileFormat.JSON,
+                JsonTaskStore.FsyncPolicy.ALWAYS, Duration.ofSeconds(1), Duration.ofMillis(200), 64, registry);
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+
+        List<Future<Task>> saves = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            saves.add(pool.submit(() -> {
+                start.await();
+                return store.save(new Task(null, "task", null, "todo"));
+            }));
+        }
+        start.countDown();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (Future<Task> save : saves) {
+            ids.add(save.get(10, TimeUnit.SECONDS).getId());
+        }
+        pool.shutdown();
+        store.deleteById(ids.iterator().next());
+
+        DistributionSummary groups = registry.get("tasks.store.commit.size").summary();
+        assertThat(ids).hasSize(writers);
+        assertThat(store.count()).isEqualTo(writers - 1);
+        assertThat(groups.totalAmount()).isEqualTo(writers + 1);
+        assertThat(groups.count()).isLessThan(writers + 1);
+        store.close();
+    }
+
+    @Test
+    void writesRacingClose_shouldBeCommittedOrRefused() throws Exception {
+        String path = dir.resolve("tasks.json").toString();
+        JsonTaskStore store = new JsonTaskStore(path, TaskFileFormat.JSON, JsonTaskStore.FsyncPolicy.ALWAYS,
+                Duration.ofSeconds(1), Duration.ofMillis(5), 16, new SimpleMeterRegistry());
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+
+        List<Future<Integer>> saves = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            saves.add(pool.submit(() -> {
+                start.await();
+                int acknowledged = 0;
+                try {
+                    while (true) {
+                        store.save(new Task(null, "task", null, "todo"));
+                        acknowledged++;
+                    }
+                } catch (IllegalStateException e) {
+                    return acknowledged;
+                }
+            }));
+        }
+        start.countDown();
+        Thread.sleep(50);
+        store.close();
+        int acknowledged = 0;
+        for (Future<Integer> save : saves) {
+            // a write that got past the closed check must still be answered
+            acknowledged += save.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        JsonTaskStore reopened = new JsonTaskStore(path);
+        assertThat(reopened.count()).isEqualTo(acknowledged);
+        reopened.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stops JsonTaskStore writes part way through, either at an injected point or by killing a
+ * writer process, and checks that reopening the file yields a complete dataset: the one before
+ * the interrupted write or the one after it, and never less than what was acknowledged.
+ */
+public class JsonTaskStoreCrashTest {
+
+    @TempDir
+    Path dir;
+
+    // thrown by the injector in place of the process dying
+    private static class Crash extends IOException {
+    }
+
+    @Test
+    void injectedCrash_shouldLeaveOldOrNewDataset() throws Exception {
+        Random random = new Random(42);
+        Path file = dir.resolve("tasks.json");
+        for (int round = 0; round < 30; round++) {
+            JsonTaskStore store = new JsonTaskStore(file.toString());
+            List<Task> before = store.findAll();
+            JsonTaskStore.WritePoint point = JsonTaskStore.WritePoint.values()[random.nextInt(JsonTaskStore.WritePoint.values().length)];
+            int tornLength = random.nextInt(64);
+            store.setFaultInjector((at, tmp) -> {
+                if (at != point) {
+                    return;
+                }
+                if (at == JsonTaskStore.WritePoint.TEMP_WRITTEN) {
+                    // the process died while the temp file was still being written
+                    try (RandomAccessFile torn = new RandomAccessFile(tmp.toFile(), "rw")) {
+                        torn.setLength(Math.min(torn.length(), tornLength));
+                    }
+                }
+                throw new Crash();
+            });
+
+            String title = "Task " + round;
+            assertThatThrownBy(() -> store.save(new Task(null, title, null, "todo")))
+                    .hasRootCauseInstanceOf(Crash.class);
+            store.close();
+
+            JsonTaskStore reopened = new JsonTaskStore(file.toString());
+            List<Task> after = reopened.findAll();
+            if (point == JsonTaskStore.WritePoint.RENAMED) {
+                assertThat(after).hasSize(before.size() + 1);
+            } else {
+                assertThat(after).usingRecursiveFieldByFieldElementComparator().isEqualTo(before);
+            }
+            assertThat(Files.exists(dir.resolve("tasks.json.tmp"))).isFalse();
+            // let the next round start from a dataset that grows either way
+            reopened.save(new Task(null, "Committed " + round, null, "done"));
+            reopened.close();
+        }
+    }
+
+    @Test
+    void killedWriter_shouldNeverCorruptFileOrLoseAcknowledgedWrites() throws Exception {
+        Random random = new Random(7);
+        Path file = dir.resolve("tasks.json");
+        Set<Long> acknowledged = new HashSet<>();
+        for (int round = 0; round < 3; round++) {
+            Process writer = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    Writer.class.getName(), file.toString())
+                    .redirectErrorStream(true)
+                    .start();
+            long killAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300 + random.nextInt(700));
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while (System.nanoTime() < killAt && (line = out.readLine()) != null) {
+                    if (line.startsWith("ack ")) {
+                        acknowledged.add(Long.parseLong(line.substring(4)));
+                    }
+                }
+                writer.destroyForcibly();
+                writer.waitFor(10, TimeUnit.SECONDS);
+            }
+
+            JsonTaskStore reopened = new JsonTaskStore(file.toString());
+            Set<Long> stored = new HashSet<>();
+            for (Task task : reopened.findAll()) {
+                stored.add(task.getId());
+            }
+            reopened.close();
+            assertThat(stored).containsAll(acknowledged);
+        }
+        assertThat(acknowledged).isNotEmpty();
+    }
+
+    /**
+     * Writes tasks until killed, printing each id once its save has returned.
+     */
+    public static class Writer {
+        public static void main(String[] args) {
+            JsonTaskStore store = new JsonTaskStore(args[0]);
+            for (int i = 0; ; i++) {
+                Task task = store.save(new Task(null, "Task " + i, "Written before the kill", "todo"));
+                System.out.println("ack " + task.getId());
+                System.out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.jfr.TaskStoreIoEvent;
+import com.example.to_do_list.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void streamingReads_shouldMatchWhatWasStored() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        // out of id order, fields reordered, an unknown field and a task without status
+        Files.writeString(file, """
+                [
+                  {"id": 3, "title": "Task 3", "description": null, "status": "done"},
+                  {"status": "in_progress", "title": "Task 1", "extra": {"nested": [1, 2]}, "id": 1},
+                  {"id": 2, "title": "Task 2", "description": "Second"}
+                ]
+                """);
+        JsonTaskStore store = new JsonTaskStore(file.toString());
+
+        assertThat(store.count()).isEqualTo(3);
+        assertThat(store.findById(1L)).get().extracting(Task::getStatus).isEqualTo("in_progress");
+        assertThat(store.findById(2L)).get().extracting(Task::getStatus).isEqualTo("todo");
+        assertThat(store.findById(4L)).isEmpty();
+        assertThat(store.findByStatus("done")).extracting(Task::getId).containsExactly(3L);
+        assertThat(store.findPage(null, 2)).extracting(Task::getId).containsExactly(1L, 2L);
+        assertThat(store.findPage(2L, 2)).extracting(Task::getId).containsExactly(3L);
+        assertThat(store.findAllById(List.of(1L, 3L, 9L))).extracting(Task::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(store.findAll()).hasSize(3);
+        store.close();
+    }
+
+    @Test
+    void smileFormat_shouldConvertExistingJsonAndExportBack() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore json = new JsonTaskStore(file.toString());
+        json.save(new Task(null, "Task 1", "First", "todo"));
+        json.save(new Task(null, "Task 2", null, "done"));
+        json.close();
+        long jsonSize = Files.size(file);
+
+        JsonTaskStore smile = new JsonTaskStore(file.toString(), TaskFileFormat.SMILE,
+                JsonTaskStore.FsyncPolicy.NEVER, Duration.ofSeconds(1), Duration.ofMillis(1), 16,
+                new SimpleMeterRegistry());
+        smile.save(new Task(null, "Task 3", null, "todo"));
+
+        assertThat(TaskFileFormat.detect(file)).isEqualTo(TaskFileFormat.SMILE);
+        assertThat(Files.size(file)).isLessThan(jsonSize);
+        assertThat(smile.findById(1L)).get().extracting(Task::getDescription).isEqualTo("First");
+        assertThat(smile.findByStatus("todo")).extracting(Task::getId).containsExactly(1L, 3L);
+        assertThat(smile.count()).isEqualTo(3);
+        smile.close();
+
+        Path export = dir.resolve("export.json");
+        assertThat(TaskFileConverter.convert(file, export, TaskFileFormat.JSON)).isEqualTo(3);
+        assertThat(Files.readString(export)).contains("\"title\" : \"Task 3\"");
+    }
+
+    @Test
+    void ids_shouldComeFromAllocatorRestoredFromFile() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        Files.writeString(file, "[{\"id\": 7, \"title\": \"Task 7\", \"status\": \"todo\"}]");
+        JsonTaskStore store = new JsonTaskStore(file.toString());
+
+        Task created = store.save(new Task(null, "Task 8", null, "todo"));
+        store.deleteById(created.getId());
+        List<Task> batch = store.applyBatch(List.of(new Task(null, "A", null, "todo"), new Task(20L, "B", null, "todo"),
+                new Task(null, "C", null, "todo")), List.of());
+        Task afterExplicit = store.save(new Task(null, "D", null, "todo"));
+
+        assertThat(created.getId()).isEqualTo(8L);
+        // a deleted id is not handed out again, and fresh ids of a batch come after its explicit ones
+        assertThat(batch).extracting(Task::getId).containsExactly(21L, 20L, 22L);
+        assertThat(afterExplicit.getId()).isEqualTo(23L);
+        store.close();
+    }
+
+    @Test
+    void metrics_shouldBreakCallsIntoPhasesAndTrackSize() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JsonTaskStore store = new JsonTaskStore(file.toString(), TaskFileFormat.JSON,
+                JsonTaskStore.FsyncPolicy.ALWAYS, Duration.ofSeconds(1), Duration.ofMillis(1), 16, registry);
+
+        store.save(new Task(null, "Task 1", null, "todo"));
+        store.applyBatch(List.of(new Task(null, "Task 2", null, "todo"), new Task(null, "Task 3", null, "done")), List.of());
+        store.deleteById(1L);
+        store.findById(2L);
+        store.existsById(3L);
+
+        assertThat(registry.get("tasks.store.operation").tags("engine", "json", "method", "save").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("tasks.store.operation").tags("method", "findById").timer().count()).isEqualTo(1);
+        assertThat(registry.get("tasks.store.operation").tags("method", "existsById").timer().count()).isEqualTo(1);
+        for (String phase : List.of("lock_wait", "read", "parse", "write", "fsync")) {
+            assertThat(registry.get("tasks.store.phase").tags("engine", "json", "phase", phase).timer().count())
+                    .as(phase).isPositive();
+        }
+        assertThat(registry.get("tasks.store.size").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("tasks.store.disk.bytes").gauge().value()).isEqualTo(Files.size(file));
+        store.close();
+    }
+
+    @Test
+    void flightRecorder_shouldSeeFileReadsAndWrites() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore store = new JsonTaskStore(file.toString());
+        Path dump = dir.resolve("store.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TaskStoreIoEvent.class);
+            recording.start();
+            store.save(new Task(null, "Task 1", null, "todo"));
+            store.findById(1L);
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(dump));
+        events.sort(Comparator.comparing(RecordedEvent::getEndTime));
+
+        // the group commit reads the file and writes it back, then the lookup reads it
+        assertThat(events).extracting(event -> event.getString("operation")).containsExactly("read", "write", "read");
+        RecordedEvent write = events.get(1);
+        assertThat(write.getLong("tasks")).isEqualTo(1);
+        assertThat(write.getLong("bytes")).isEqualTo(Files.size(file));
+        assertThat(events.get(2).getLong("tasks")).isEqualTo(1);
+        assertThat(events.get(2).getString("engine")).isEqualTo("json");
+        store.close();
+    }
+
+    @Test
+    void errorDuringCommit_shouldFailThatWriteAndKeepCommitting() {
+        JsonTaskStore store = new JsonTaskStore(dir.resolve("tasks.json").toString());
+        store.setFaultInjector((point, tmp) -> {
+            throw new StackOverflowError();
+        });
+
+        assertThatThrownBy(() -> store.save(new Task(null, "Task 1", null, "todo")))
+                .hasRootCauseInstanceOf(StackOverflowError.class);
+
+        store.setFaultInjector((point, tmp) -> {
+        });
+        Task saved = store.save(new Task(null, "Task 2", null, "todo"));
+        assertThat(store.findById(saved.getId())).isPresent();
+        store.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stops LogTaskStore compactions part way through, as if the machine lost power there, and checks
+ * that reopening the store yields every task that was acknowledged before the compaction.
+ */
+public class LogTaskStoreCrashTest {
+
+    @TempDir
+    Path dir;
+
+    // thrown by the injector in place of the process dying
+    private static class Crash extends IOException {
+    }
+
+    private LogTaskStore open() {
+        return new LogTaskStore(dir.resolve("tasks.log").toString(),
+                dir.resolve("tasks.snapshot.json").toString(), true, 1_000_000);
+    }
+
+    @Test
+    void crashDuringCompaction_shouldKeepEveryAcknowledgedWrite() throws Exception {
+        Path snapshot = dir.resolve("tasks.snapshot.json");
+        int next = 0;
+        for (LogTaskStore.CompactPoint point : LogTaskStore.CompactPoint.values()) {
+            LogTaskStore store = open();
+            for (int i = 0; i < 5; i++) {
+                store.save(new Task(null, "Task " + next++, null, "todo"));
+            }
+            List<Task> acknowledged = store.findAll();
+            byte[] oldSnapshot = Files.exists(snapshot) ? Files.readAllBytes(snapshot) : null;
+            List<LogTaskStore.CompactPoint> reached = new ArrayList<>();
+            store.setFaultInjector(at -> {
+                reached.add(at);
+                if (at != point) {
+                    return;
+                }
+                if (!reached.contains(LogTaskStore.CompactPoint.DIRECTORY_SYNCED)) {
+                    // power lost before the directory was synced: the rename may not have survived
+                    if (oldSnapshot == null) {
+                        Files.deleteIfExists(snapshot);
+                    } else {
+                        Files.write(snapshot, oldSnapshot);
+                    }
+                }
+                throw new Crash();
+            });
+
+            assertThatThrownBy(store::compact).hasRootCauseInstanceOf(Crash.class);
+            store.close();
+
+            LogTaskStore reopened = open();
+            assertThat(reopened.findAll()).usingRecursiveFieldByFieldElementComparator().isEqualTo(acknowledged);
+            reopened.close();
+        }
+    }
+
+    @Test
+    void compact_shouldSyncTheDirectoryBeforeTruncatingTheLog() throws Exception {
+        LogTaskStore store = open();
+        store.save(new Task(null, "Task 1", null, "todo"));
+        List<LogTaskStore.CompactPoint> reached = new ArrayList<>();
+        store.setFaultInjector(reached::add);
+
+        store.compact();
+
+        assertThat(reached).containsExactly(LogTaskStore.CompactPoint.values());
+        store.close();
+    }
+}
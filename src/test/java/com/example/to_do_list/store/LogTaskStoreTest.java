@@ -0,0 +1,116 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private LogTaskStore open(int compactThreshold) {
+        return new LogTaskStore(dir.resolve("tasks.log").toString(),
+                dir.resolve("tasks.snapshot.json").toString(), true, compactThreshold);
+    }
+
+    @Test
+    void writes_shouldSurviveReopen() throws Exception {
+        LogTaskStore store = open(1000);
+        Task first = store.save(new Task(null, "Task 1", "Description 1", "todo"));
+        Task second = store.save(new Task(null, "Task 2", "Description 2", "todo"));
+        second.setStatus("done");
+        store.save(second);
+        store.deleteById(first.getId());
+        store.close();
+
+        LogTaskStore reopened = open(1000);
+
+        assertThat(reopened.count()).isEqualTo(1);
+        assertThat(reopened.findById(second.getId())).get().extracting(Task::getStatus).isEqualTo("done");
+        assertThat(reopened.save(new Task(null, "Task 3", null, "todo")).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void tornTail_shouldBeDiscardedOnReplay() throws Exception {
+        LogTaskStore store = open(1000);
+        store.save(new Task(null, "Task 1", null, "todo"));
+        store.save(new Task(null, "Task 2", null, "todo"));
+        store.close();
+
+        // simulate a crash in the middle of the last append
+        Path log = dir.resolve("tasks.log");
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        long tornSize = Files.size(log);
+
+        LogTaskStore reopened = open(1000);
+
+        assertThat(reopened.count()).isEqualTo(1);
+        assertThat(Files.size(log)).isLessThan(tornSize);
+        reopened.save(new Task(null, "Task 2 again", null, "todo"));
+        reopened.close();
+        assertThat(open(1000).count()).isEqualTo(2);
+    }
+
+    @Test
+    void compaction_shouldMoveStateIntoSnapshot() throws Exception {
+        LogTaskStore store = open(3);
+        store.save(new Task(null, "Task 1", null, "todo"));
+        store.save(new Task(null, "Task 2", null, "todo"));
+        store.save(new Task(null, "Task 3", null, "todo"));
+        store.close();
+
+        assertThat(Files.size(dir.resolve("tasks.log"))).isZero();
+        assertThat(open(3).findAll()).extracting(Task::getTitle).containsExactly("Task 1", "Task 2", "Task 3");
+    }
+
+    @Test
+    void returnedTasks_shouldNotAliasStoredState() {
+        LogTaskStore store = open(1000);
+        Task saved = store.save(new Task(null, "Task 1", null, "todo"));
+
+        store.findById(saved.getId()).get().setTitle("changed without save");
+
+        assertThat(store.findById(saved.getId())).get().extracting(Task::getTitle).isEqualTo("Task 1");
+    }
+
+    @Test
+    void batch_shouldBeReplayedAsOneRecord() throws Exception {
+        LogTaskStore store = open(1000);
+        Task first = store.save(new Task(null, "Task 1", null, "todo"));
+        store.applyBatch(java.util.List.of(new Task(null, "Task 2", null, "todo"), new Task(null, "Task 3", null, "done")),
+                java.util.List.of(first.getId()));
+        store.close();
+
+        LogTaskStore reopened = open(1000);
+
+        assertThat(reopened.findAll()).extracting(Task::getTitle).containsExactly("Task 2", "Task 3");
+        assertThat(reopened.save(new Task(null, "Task 4", null, "todo")).getId()).isEqualTo(4L);
+    }
+
+    @Test
+    void failedCompaction_shouldNotFailTheWriteThatTriggeredIt() throws Exception {
+        LogTaskStore store = open(2);
+        store.setFaultInjector(point -> {
+            throw new IOException("disk full");
+        });
+        store.save(new Task(null, "Task 1", null, "todo"));
+
+        Task second = store.save(new Task(null, "Task 2", null, "todo"));
+        Task third = store.save(new Task(null, "Task 3", null, "todo"));
+        store.close();
+
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(third.getId()).isEqualTo(3L);
+        assertThat(open(2).count()).isEqualTo(3);
+    }
+}
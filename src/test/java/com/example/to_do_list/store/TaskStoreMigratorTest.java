@@ -0,0 +1,48 @@
+package com.example.to_do_list.store;
+
+import com.example.to_do_list.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskStoreMigratorTest {
+
+    private static InMemoryTaskStore memoryStore() {
+        return new InMemoryTaskStore("unused.json", InMemoryTaskStore.Durability.NONE, 1000);
+    }
+
+    @Test
+    void migrate_shouldCopyInChunksKeepingIds() {
+        InMemoryTaskStore source = memoryStore();
+        for (int i = 1; i <= 25; i++) {
+            source.save(new Task(null, "Task " + i, null, i % 2 == 0 ? "done" : "todo"));
+        }
+        source.deleteById(7L);
+        InMemoryTaskStore target = memoryStore();
+
+        TaskStoreMigrator.Report report = new TaskStoreMigrator(10, 3).migrate(source, target);
+
+        assertThat(report.verified()).isTrue();
+        assertThat(report.copied()).isEqualTo(24);
+        assertThat(report.sourceCount()).isEqualTo(24).isEqualTo(report.targetCount());
+        assertThat(report.sourceChecksum()).isEqualTo(report.targetChecksum());
+        assertThat(target.findAll()).usingRecursiveFieldByFieldElementComparator().isEqualTo(source.findAll());
+    }
+
+    @Test
+    void syncPass_shouldRepairTargetThatDrifted() {
+        InMemoryTaskStore source = memoryStore();
+        source.applyBatch(List.of(new Task(null, "Task 1", null, "todo"), new Task(null, "Task 2", null, "todo")), List.of());
+        InMemoryTaskStore target = memoryStore();
+        // what a previous, interrupted run might have left behind
+        target.importTasks(List.of(new Task(1L, "Old title", null, "todo"), new Task(9L, "Gone", null, "done")));
+
+        TaskStoreMigrator.Report report = new TaskStoreMigrator(1, 3).migrate(source, target);
+
+        assertThat(report.verified()).isTrue();
+        assertThat(target.findAll()).extracting(Task::getId).containsExactly(1L, 2L);
+        assertThat(target.findById(1L)).get().extracting(Task::getTitle).isEqualTo("Task 1");
+    }
+}